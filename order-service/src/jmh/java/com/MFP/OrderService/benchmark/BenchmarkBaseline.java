@@ -0,0 +1,98 @@
+package com.MFP.OrderService.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares a JMH JSON result with a saved baseline and exits non-zero when a benchmark regressed by more than the threshold.
+// Usage: BenchmarkBaseline <result.json> <baseline.json> <threshold-percent> <save-baseline>
+public final class BenchmarkBaseline {
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path result = Path.of(args[0]);
+        Path baseline = Path.of(args[1]);
+        double threshold = Double.parseDouble(args[2]) / 100d;
+        boolean saveBaseline = Boolean.parseBoolean(args[3]);
+
+        if (!Files.exists(result)) {
+            System.out.println("No JMH result at " + result + ", nothing to compare");
+            return;
+        }
+        if (saveBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Saved JMH baseline to " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.out.println("No JMH baseline at " + baseline + ", run with -Djmh.saveBaseline=true to record one");
+            return;
+        }
+
+        Map<String, JsonNode> current = read(result);
+        Map<String, JsonNode> previous = read(baseline);
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = previous.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s new benchmark%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore;
+            boolean regressed = higherIsBetter ? change < -threshold : change > threshold;
+            System.out.printf("%-90s %14.3f -> %14.3f %s (%+.1f%%)%s%n",
+                    entry.getKey(), oldScore, newScore, unit, change * 100, regressed ? " REGRESSION" : "");
+            if (regressed) {
+                regressions.add(entry.getKey());
+            }
+
+            JsonNode oldAllocation = before.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score");
+            JsonNode newAllocation = after.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score");
+            // Allow one byte of noise so zero-allocation benchmarks do not flap.
+            if (oldAllocation.isNumber() && newAllocation.isNumber()
+                    && newAllocation.asDouble() > oldAllocation.asDouble() * (1 + threshold) + 1) {
+                System.out.printf("%-90s allocation %.1f -> %.1f B/op REGRESSION%n",
+                        entry.getKey(), oldAllocation.asDouble(), newAllocation.asDouble());
+                regressions.add(entry.getKey() + " (" + ALLOCATION_METRIC + ")");
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.println("JMH regressions beyond " + args[2] + "%: " + regressions);
+            System.exit(1);
+        }
+        System.out.println("No JMH regressions beyond " + args[2] + "%");
+    }
+
+    private static Map<String, JsonNode> read(Path path) throws IOException {
+        Map<String, JsonNode> benchmarks = new TreeMap<>();
+        for (JsonNode benchmark : OBJECT_MAPPER.readTree(path.toFile())) {
+            StringBuilder key = new StringBuilder(benchmark.path("benchmark").asText());
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = benchmark.path("params").fields();
+            fields.forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+            benchmarks.put(key.toString(), benchmark);
+        }
+        return benchmarks;
+    }
+}
@@ -0,0 +1,40 @@
+package com.MFP.OrderService.benchmark;
+
+import com.MFP.OrderService.exception.ErrorResponse;
+import com.MFP.OrderService.exception.GlobalExceptionHandler;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorResponseBenchmark {
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/api/order/v1/42");
+    }
+
+    // Includes constructing the exception, as the service does on every miss.
+    @Benchmark
+    public ResponseEntity<ErrorResponse> orderNotFound() {
+        return handler.handelOrderNotFoundException(new OrderNotFoundException("Order with id=42 not found"), request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> invalidOrder() {
+        return handler.handelInvalidOrderException(new InvalidOrderException("Amount must be greater than zero"), request);
+    }
+}
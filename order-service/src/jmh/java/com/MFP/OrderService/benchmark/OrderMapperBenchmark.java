@@ -0,0 +1,49 @@
+package com.MFP.OrderService.benchmark;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.mapper.OrderMapper;
+import com.MFP.OrderService.mapper.OrderMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMapperBenchmark {
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private CreateOrderRequest createOrderRequest;
+    private UpdateOrderRequestDto updateOrderRequestDto;
+    private OrderEntity orderEntity;
+
+    @Setup
+    public void setUp() {
+        createOrderRequest = CreateOrderRequest.builder().userId(42L).amount(new BigDecimal("1999.99")).build();
+        updateOrderRequestDto = UpdateOrderRequestDto.builder().userId(42L).amount(new BigDecimal("2499.50")).status(OrderStatus.Approved).build();
+        orderEntity = OrderEntity.builder().id(1001L).userId(42L).amount(new BigDecimal("1999.99")).status(OrderStatus.Created).build();
+    }
+
+    @Benchmark
+    public OrderEntity toEntity() {
+        return orderMapper.toEntity(createOrderRequest);
+    }
+
+    @Benchmark
+    public OrderResponse toResponse() {
+        return orderMapper.toResponse(orderEntity);
+    }
+
+    @Benchmark
+    public OrderEntity updateEntity() {
+        orderMapper.updateEntity(updateOrderRequestDto, orderEntity);
+        return orderEntity;
+    }
+}
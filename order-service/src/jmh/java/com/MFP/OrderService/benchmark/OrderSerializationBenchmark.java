@@ -0,0 +1,61 @@
+package com.MFP.OrderService.benchmark;
+
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializationBenchmark {
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<OrderResponse> orders;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TypeReference<List<OrderResponse>> listType = new TypeReference<>() {
+        };
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+        orders = new ArrayList<>(size);
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int i = 0; i < size; i++) {
+            orders.add(OrderResponse.builder()
+                    .id((long) i + 1)
+                    .userId((long) i % 500)
+                    .amount(BigDecimal.valueOf(100_000 + i, 2))
+                    .status(statuses[i % statuses.length])
+                    .build());
+        }
+        payload = writer.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public List<OrderResponse> deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,50 @@
+package com.MFP.OrderService.benchmark;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.service.OrderValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderValidationBenchmark {
+    private CreateOrderRequest validRequest;
+    private CreateOrderRequest invalidRequest;
+    private BigDecimal updateAmount;
+
+    @Setup
+    public void setUp() {
+        validRequest = CreateOrderRequest.builder().userId(42L).amount(new BigDecimal("1999.99")).build();
+        invalidRequest = CreateOrderRequest.builder().userId(42L).amount(BigDecimal.ZERO).build();
+        updateAmount = new BigDecimal("2499.50");
+    }
+
+    @Benchmark
+    public CreateOrderRequest validateCreateRequest() {
+        OrderValidator.validateCreateRequest(validRequest);
+        return validRequest;
+    }
+
+    @Benchmark
+    public InvalidOrderException rejectCreateRequest() {
+        try {
+            OrderValidator.validateCreateRequest(invalidRequest);
+            return null;
+        } catch (InvalidOrderException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal validateUpdateAmount() {
+        OrderValidator.validateAmount(updateAmount);
+        return updateAmount;
+    }
+}
@@ -0,0 +1,96 @@
+package com.MFP.OrderService.benchmark;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// JSON vs the binary formats served by WireFormatConfig, for an OrderResponse list and a single CreateOrderRequest.
+// Payload sizes are printed once per trial since JMH only reports time and allocation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+    private ObjectWriter requestWriter;
+    private ObjectReader requestReader;
+    private List<OrderResponse> orders;
+    private CreateOrderRequest request;
+    private byte[] listPayload;
+    private byte[] requestPayload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "smile" -> SmileMapper.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+            case "cbor" -> new CBORMapper();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        TypeReference<List<OrderResponse>> listType = new TypeReference<>() {
+        };
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+        requestWriter = objectMapper.writerFor(CreateOrderRequest.class);
+        requestReader = objectMapper.readerFor(CreateOrderRequest.class);
+
+        orders = new ArrayList<>(size);
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int i = 0; i < size; i++) {
+            orders.add(OrderResponse.builder()
+                    .id((long) i + 1)
+                    .userId((long) i % 500)
+                    .amount(BigDecimal.valueOf(100_000 + i, 2))
+                    .status(statuses[i % statuses.length])
+                    .build());
+        }
+        request = CreateOrderRequest.builder().userId(42L).amount(new BigDecimal("1234.56")).build();
+        listPayload = listWriter.writeValueAsBytes(orders);
+        requestPayload = requestWriter.writeValueAsBytes(request);
+        System.out.printf("%n%s: %d orders = %d bytes (%.1f B/order), create request = %d bytes%n",
+                format, size, listPayload.length, (double) listPayload.length / size, requestPayload.length);
+    }
+
+    @Benchmark
+    public byte[] encodeOrders() throws IOException {
+        return listWriter.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public List<OrderResponse> decodeOrders() throws IOException {
+        return listReader.readValue(listPayload);
+    }
+
+    @Benchmark
+    public byte[] encodeCreateRequest() throws IOException {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public CreateOrderRequest decodeCreateRequest() throws IOException {
+        return requestReader.readValue(requestPayload);
+    }
+}
@@ -0,0 +1,83 @@
+package com.MFP.OrderService.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Command line options, all in --name=value form.
+public class LoadTestOptions {
+    double rate = 200;
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(5);
+    Map<Operation, Integer> mix = parseMix("create=30,get=50,update=10,delete=5,list=5");
+    int maxInFlight = 512;
+    int seedOrders = 1000;
+    String profiles = "test";
+    String target;
+    Path reportDir = Path.of("target", "loadtest");
+    boolean poisson = true;
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (arg.isBlank()) {
+                continue;
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "mix" -> options.mix = parseMix(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "seed-orders" -> options.seedOrders = Integer.parseInt(value);
+                case "profiles" -> options.profiles = value;
+                case "target" -> options.target = value;
+                case "report-dir" -> options.reportDir = Path.of(value);
+                case "arrivals" -> options.poisson = !"uniform".equals(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (options.rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        return options;
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    @Override
+    public String toString() {
+        return "rate=" + rate + "/s, duration=" + duration.toSeconds() + "s, warmup=" + warmup.toSeconds()
+                + "s, arrivals=" + (poisson ? "poisson" : "uniform") + ", mix=" + mix
+                + ", max-in-flight=" + maxInFlight + ", profiles=" + profiles;
+    }
+}
@@ -0,0 +1,264 @@
+package com.MFP.OrderService.loadtest;
+
+import com.MFP.OrderService.OrderServiceApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Open-model load generator for api/order/v1. Starts the service on the given profiles (H2 "test" by default) unless
+// --target points at an already running localhost instance, then reports throughput and latency per endpoint.
+public final class LoadTestRunner {
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+    private static final String[] STATUSES = {"Created", "Approved", "Rejected"};
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final ExecutorService callbackExecutor;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final IdPool ids = new IdPool(1 << 16);
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private LoadTestRunner(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl + "/api/order/v1";
+        this.callbackExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(callbackExecutor)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        this.operations = options.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.target;
+        if (baseUrl == null) {
+            // devtools is on the test classpath; its restarter would re-enter main with the Spring arguments.
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            context = SpringApplication.run(OrderServiceApplication.class,
+                    "--spring.profiles.active=" + options.profiles,
+                    "--server.port=0",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.MFP=WARN");
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        LoadTestRunner runner = new LoadTestRunner(options, baseUrl);
+        try {
+            runner.run();
+        } finally {
+            runner.callbackExecutor.shutdownNow();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.println("Load test against " + baseUrl + " with " + options);
+        seed();
+
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long warmupEnd = start + options.warmup.toNanos();
+        long end = warmupEnd + options.duration.toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        double offset = 0;
+
+        while (true) {
+            long intended = start + (long) offset;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(pickOperation(), intended, intended >= warmupEnd);
+            offset += options.poisson
+                    ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        report(Math.max(1, end - warmupEnd));
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        int remaining = options.seedOrders;
+        while (remaining > 0) {
+            int chunk = Math.min(500, remaining);
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < chunk; i++) {
+                body.append(i == 0 ? "" : ",").append(orderJson(null));
+            }
+            body.append(']');
+            HttpResponse<String> response = httpClient.send(
+                    json(HttpRequest.newBuilder(URI.create(baseUrl + "/batch")), "POST", body.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            collectIds(response.body());
+            remaining -= chunk;
+        }
+        System.out.println("Seeded " + options.seedOrders + " orders");
+    }
+
+    // Warmup requests are sent but only requests intended inside the measurement window are recorded.
+    private void fire(Operation operation, long intended, boolean measured) {
+        EndpointStats endpoint = stats.get(operation);
+        if (inFlight.get() >= options.maxInFlight) {
+            if (measured) {
+                endpoint.recordDropped();
+            }
+            return;
+        }
+        HttpRequest request = buildRequest(operation);
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - intended;
+                    inFlight.decrementAndGet();
+                    if (failure == null && operation == Operation.CREATE && response.statusCode() == 201) {
+                        collectIds(response.body());
+                    }
+                    if (!measured) {
+                        return;
+                    }
+                    if (failure != null) {
+                        endpoint.recordFailure(latency);
+                        return;
+                    }
+                    endpoint.record(latency, response.statusCode());
+                });
+    }
+
+    private HttpRequest buildRequest(Operation operation) {
+        long id = ids.random();
+        return switch (operation) {
+            case CREATE -> json(HttpRequest.newBuilder(URI.create(baseUrl)), "POST", orderJson(null));
+            case GET -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).GET().build();
+            case UPDATE -> json(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)), "PUT",
+                    orderJson(STATUSES[ThreadLocalRandom.current().nextInt(STATUSES.length)]));
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE().build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "/page?size=50&after=" + Math.max(0, id - 1))).GET().build();
+        };
+    }
+
+    private Operation pickOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static String orderJson(String status) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String order = "{\"userId\":" + random.nextInt(1, 1000) + ",\"amount\":" + random.nextInt(100, 100_000) / 100.0;
+        return status == null ? order + "}" : order + ",\"status\":\"" + status + "\"}";
+    }
+
+    private static HttpRequest json(HttpRequest.Builder builder, String method, String body) {
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private void collectIds(String body) {
+        Matcher matcher = ID.matcher(body);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+    }
+
+    private void report(long measuredNanos) throws IOException {
+        double seconds = measuredNanos / 1e9;
+        Files.createDirectories(options.reportDir);
+        System.out.println();
+        System.out.printf("%-8s %9s %10s %9s %9s %9s %9s %9s %7s %8s  %s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "dropped", "statuses");
+        long total = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().snapshot();
+            long count = histogram.getTotalCount();
+            if (count == 0 && entry.getValue().dropped() == 0) {
+                continue;
+            }
+            total += count;
+            System.out.printf("%-8s %9d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %8d  %s%n",
+                    entry.getKey().name().toLowerCase(), count, count / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    entry.getValue().errors(), entry.getValue().dropped(), entry.getValue().statuses());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(
+                    options.reportDir.resolve(entry.getKey().name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.printf("%ntotal %d requests in %.1fs = %.1f req/s (target %.1f req/s)%n", total, seconds, total / seconds, options.rate);
+        System.out.println("HDR percentile distributions (ms) written to " + options.reportDir.toAbsolutePath());
+    }
+
+    // Fixed-size ring of recently created ids that get/update/delete/list pick from.
+    private static final class IdPool {
+        private final AtomicLongArray ring;
+        private final AtomicInteger next = new AtomicInteger();
+
+        IdPool(int capacity) {
+            this.ring = new AtomicLongArray(capacity);
+        }
+
+        void add(long id) {
+            ring.set(Math.floorMod(next.getAndIncrement(), ring.length()), id);
+        }
+
+        long random() {
+            int filled = Math.min(next.get(), ring.length());
+            return filled == 0 ? 1 : ring.get(ThreadLocalRandom.current().nextInt(filled));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.MFP.OrderService.loadtest;
+
+public enum Operation {
+    CREATE,
+    GET,
+    UPDATE,
+    DELETE,
+    LIST
+}
@@ -0,0 +1,174 @@
+package com.MFP.OrderService.aggregate;
+
+import com.MFP.OrderService.datasource.PrimaryReads;
+import com.MFP.OrderService.dto.OrderStatusAggregatesResponse;
+import com.MFP.OrderService.dto.UserOrderAggregateResponse;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.repository.OrderTotalsRow;
+import com.MFP.OrderService.shard.OrderShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// In-memory order counts and amount sums, per user and per status. Writers only touch LongAdders, so concurrent
+// updates don't contend on a lock, and every read is a lookup plus a few sums. Amounts are kept in cents, matching the
+// scale of the orders.amount column; the column holds more than a long, so amounts above SMALL_CENTS_BITS go to a
+// BigInteger instead. Totals are rebuilt from the table once at startup, before the web server accepts requests, and
+// from then on follow committed writes.
+@Slf4j
+@Component
+public class OrderAggregates implements SmartInitializingSingleton {
+    private static final int AMOUNT_SCALE = 2;
+    // Each amount on the LongAdder is below 2^31 cents, so its sum stays exact for up to 2^32 orders per total.
+    private static final int SMALL_CENTS_BITS = 31;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderShards orderShards;
+    private final Totals[] statusTotals = new Totals[STATUSES.length];
+    private final ConcurrentHashMap<Long, Totals> userTotals = new ConcurrentHashMap<>();
+
+    public OrderAggregates(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                           OrderShards orderShards) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderShards = orderShards;
+        for (int i = 0; i < statusTotals.length; i++) {
+            statusTotals[i] = new Totals();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    // Scanned on the primary, since replica lag would leave the totals behind the deltas applied after each commit.
+    // Totals are sums, so the rows of all shards and of the archive simply add up.
+    public void rebuild() {
+        for (Totals totals : statusTotals) {
+            totals.reset();
+        }
+        userTotals.clear();
+        long rows = 0;
+        for (List<OrderTotalsRow> shardRows : orderShards.onEach(() -> PrimaryReads.call(this::sumByUserAndStatus))) {
+            for (OrderTotalsRow row : shardRows) {
+                BigInteger cents = toCents(row.amount());
+                if (row.status() != null) {
+                    statusTotals[row.status().ordinal()].add(row.orderCount(), cents);
+                }
+                if (row.userId() != null) {
+                    userTotals.computeIfAbsent(row.userId(), id -> new Totals()).add(row.orderCount(), cents);
+                }
+                rows += row.orderCount();
+            }
+        }
+        log.info("Order aggregates rebuilt from {} orders for {} users", rows, userTotals.size());
+    }
+
+    private List<OrderTotalsRow> sumByUserAndStatus() {
+        List<OrderTotalsRow> rows = new ArrayList<>(orderRepository.sumByUserAndStatus());
+        rows.addAll(archivedOrderRepository.sumByUserAndStatus());
+        return rows;
+    }
+
+    public void add(Long userId, BigDecimal amount, OrderStatus status) {
+        apply(userId, amount, status, 1);
+    }
+
+    public void remove(Long userId, BigDecimal amount, OrderStatus status) {
+        apply(userId, amount, status, -1);
+    }
+
+    public UserOrderAggregateResponse forUser(Long userId) {
+        Totals totals = userTotals.get(userId);
+        return UserOrderAggregateResponse.builder()
+                .userId(userId)
+                .orderCount(totals == null ? 0 : totals.count.sum())
+                .totalAmount(totals == null ? zero() : fromCents(totals.cents()))
+                .build();
+    }
+
+    public OrderStatusAggregatesResponse byStatus() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        Map<OrderStatus, BigDecimal> amounts = new EnumMap<>(OrderStatus.class);
+        long totalOrders = 0;
+        BigInteger totalCents = BigInteger.ZERO;
+        for (OrderStatus status : STATUSES) {
+            long count = statusTotals[status.ordinal()].count.sum();
+            BigInteger cents = statusTotals[status.ordinal()].cents();
+            counts.put(status, count);
+            amounts.put(status, fromCents(cents));
+            totalOrders += count;
+            totalCents = totalCents.add(cents);
+        }
+        return OrderStatusAggregatesResponse.builder()
+                .totalOrders(totalOrders)
+                .totalAmount(fromCents(totalCents))
+                .counts(counts)
+                .amounts(amounts)
+                .build();
+    }
+
+    private void apply(Long userId, BigDecimal amount, OrderStatus status, int sign) {
+        BigInteger cents = sign < 0 ? toCents(amount).negate() : toCents(amount);
+        if (status != null) {
+            statusTotals[status.ordinal()].add(sign, cents);
+        }
+        if (userId != null) {
+            userTotals.computeIfAbsent(userId, id -> new Totals()).add(sign, cents);
+        }
+    }
+
+    private static BigInteger toCents(BigDecimal amount) {
+        return amount == null ? BigInteger.ZERO : amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue();
+    }
+
+    private static BigDecimal fromCents(BigInteger cents) {
+        return new BigDecimal(cents, AMOUNT_SCALE);
+    }
+
+    private static BigDecimal zero() {
+        return BigDecimal.ZERO.setScale(AMOUNT_SCALE);
+    }
+
+    private static final class Totals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+        private final AtomicReference<BigInteger> largeCents = new AtomicReference<>(BigInteger.ZERO);
+
+        // An order is added and removed with the same amount, so it always lands on the same counter.
+        void add(long orders, BigInteger amountCents) {
+            count.add(orders);
+            if (amountCents.bitLength() <= SMALL_CENTS_BITS) {
+                cents.add(amountCents.longValue());
+            } else {
+                largeCents.accumulateAndGet(amountCents, BigInteger::add);
+            }
+        }
+
+        BigInteger cents() {
+            return BigInteger.valueOf(cents.sum()).add(largeCents.get());
+        }
+
+        void reset() {
+            count.reset();
+            cents.reset();
+            largeCents.set(BigInteger.ZERO);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.MFP.OrderService.archive;
+
+import com.MFP.OrderService.config.OrderArchiveProperties;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.repository.ArchivableOrder;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+// Moves orders in a terminal status that have not been written for min-age from orders to orders_archive, so the hot
+// table and its indexes only hold the working set. Each batch is locked, copied and deleted in one transaction; a
+// failed batch rolls back and is picked up again on the next run. Every shard archives into its own table.
+// Archived orders keep their id, stay in the id filter and the aggregates, and are still found by findById.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order.archive", name = "enabled", havingValue = "true")
+public class OrderArchiver {
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionOperations transactionOperations;
+    private final OrderShards orderShards;
+    private final Set<OrderStatus> statuses;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Counter archivedOrders;
+    private final Counter failedRuns;
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         ArchivedOrderRepository archivedOrderRepository,
+                         TransactionOperations transactionOperations,
+                         OrderShards orderShards,
+                         OrderArchiveProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.transactionOperations = transactionOperations;
+        this.orderShards = orderShards;
+        this.statuses = Set.copyOf(properties.getStatuses());
+        this.minAge = properties.getMinAge();
+        this.batchSize = properties.getBatchSize();
+        this.archivedOrders = meterRegistry.counter("order.archive.archived");
+        this.failedRuns = meterRegistry.counter("order.archive.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${order.archive.interval:1h}", initialDelayString = "${order.archive.interval:1h}")
+    public int archive() {
+        if (statuses.isEmpty()) {
+            return 0;
+        }
+        Instant before = Instant.now().minus(minAge);
+        int total = 0;
+        for (int shard = 0; shard < orderShards.count(); shard++) {
+            try {
+                total += orderShards.on(shard, () -> archiveShard(before));
+            } catch (RuntimeException ex) {
+                failedRuns.increment();
+                log.warn("Archiving orders of shard {} failed, will retry: {}", shard, ex.getMessage());
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} orders last written before {}", total, before);
+        }
+        return total;
+    }
+
+    // Walks each status from the oldest write on, continuing after the last (updated_at, id) of the previous batch.
+    int archiveShard(Instant before) {
+        int archived = 0;
+        for (OrderStatus orderStatus : statuses) {
+            ArchivableOrder after = null;
+            List<ArchivableOrder> batch;
+            do {
+                batch = archiveBatch(orderStatus, before, after);
+                archived += batch.size();
+                after = batch.isEmpty() ? after : batch.get(batch.size() - 1);
+            } while (batch.size() == batchSize);
+        }
+        return archived;
+    }
+
+    List<ArchivableOrder> archiveBatch(OrderStatus orderStatus, Instant before, ArchivableOrder after) {
+        List<ArchivableOrder> moved = transactionOperations.execute(status -> {
+            List<ArchivableOrder> batch = after == null
+                    ? orderRepository.findArchivableForUpdate(orderStatus, before, Limit.of(batchSize))
+                    : orderRepository.findArchivableForUpdate(orderStatus, before, after.updatedAt(), after.id(), Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return batch;
+            }
+            List<Long> ids = batch.stream().map(ArchivableOrder::id).toList();
+            archivedOrderRepository.copyFromOrders(ids, Instant.now());
+            orderRepository.deleteOrdersByIdIn(ids);
+            return batch;
+        });
+        List<ArchivableOrder> batch = moved == null ? List.of() : moved;
+        archivedOrders.increment(batch.size());
+        return batch;
+    }
+}
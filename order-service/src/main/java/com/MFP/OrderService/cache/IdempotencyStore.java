@@ -0,0 +1,76 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.config.IdempotencyProperties;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderAlreadyExistsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+@Component
+public class IdempotencyStore implements MeterBinder {
+    private final Cache<String, Entry> entries;
+    private final int maxKeyLength;
+
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.maxKeyLength = properties.getMaxKeyLength();
+    }
+
+    // The first request for a key runs the action; duplicates arriving meanwhile wait on its result instead of
+    // inserting again. A failed action releases the key so the client can retry with it.
+    public OrderResponse execute(String key, String fingerprint, Supplier<OrderResponse> action) {
+        if (key.isBlank() || key.length() > maxKeyLength) {
+            throw new InvalidOrderException("Idempotency-Key must be between 1 and " + maxKeyLength + " characters");
+        }
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing == null) {
+            try {
+                OrderResponse response = action.get();
+                entry.result().complete(response);
+                return response;
+            } catch (RuntimeException | Error ex) {
+                entries.asMap().remove(key, entry);
+                entry.result().completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new OrderAlreadyExistsException("Idempotency-Key " + key + " was already used for a different order");
+        }
+        try {
+            return existing.result().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, entries, "idempotency-keys");
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<OrderResponse> result) {
+    }
+}
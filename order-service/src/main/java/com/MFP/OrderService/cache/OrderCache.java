@@ -0,0 +1,99 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.config.OrderCacheProperties;
+import com.MFP.OrderService.dto.OrderCacheStatsResponse;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+@Component
+public class OrderCache implements MeterBinder {
+    private final AsyncCache<Long, OrderResponse> cache;
+
+    public OrderCache(OrderCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .buildAsync();
+    }
+
+    // Concurrent misses for the same id wait on a single load. A null result (order not found) or a loader exception
+    // is handed to every waiter and nothing is cached. The load runs outside the map's bin lock so a virtual thread
+    // blocked on JDBC never pins its carrier.
+    public OrderResponse get(Long id, Function<Long, OrderResponse> loader) {
+        CompletableFuture<OrderResponse> promise = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> future = cache.get(id, (key, executor) -> promise);
+        if (future == promise) {
+            try {
+                promise.complete(loader.apply(id));
+            } catch (RuntimeException | Error ex) {
+                promise.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // The cached order if it is loaded, without waiting for a load in flight or counting a hit or miss.
+    public OrderResponse getIfPresent(Long id) {
+        CompletableFuture<OrderResponse> future = cache.asMap().get(id);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    // Writers put after their commit, outside the row's lock, so two updates can arrive in either order: a loaded
+    // entry with a higher version is kept. A load still in flight is replaced, it may have read the older row.
+    public void put(OrderResponse orderResponse) {
+        cache.asMap().merge(orderResponse.getId(), CompletableFuture.completedFuture(orderResponse),
+                (cached, update) -> isNewer(cached, orderResponse) ? cached : update);
+    }
+
+    private static boolean isNewer(CompletableFuture<OrderResponse> cached, OrderResponse orderResponse) {
+        if (!cached.isDone() || cached.isCompletedExceptionally()) {
+            return false;
+        }
+        OrderResponse current = cached.join();
+        return current != null && current.getVersion() != null && orderResponse.getVersion() != null
+                && current.getVersion() > orderResponse.getVersion();
+    }
+
+    public void invalidate(Long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "orders");
+    }
+
+    public OrderCacheStatsResponse stats() {
+        cache.synchronous().cleanUp();
+        CacheStats stats = cache.synchronous().stats();
+        return OrderCacheStatsResponse.builder()
+                .size(cache.synchronous().estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .loadSuccessCount(stats.loadSuccessCount())
+                .loadFailureCount(stats.loadFailureCount())
+                .averageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000d)
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+// One bit per order id. Ids come from a sequence, so a plain bitmap is exact and small: 8 KiB per 65536 ids, no false
+// positives. A clear bit means the order does not exist and findById can answer 404 without the database. Until the
+// first rebuild every id counts as possibly present.
+// The bitmap only learns this instance's writes between rebuilds, so it is only exact with a single writer; with more,
+// another writer's pooled block taken before the rebuild yields ids it answers 404 for. It is off unless
+// order.id-filter.enabled is set. Ids above its highest id, less one allocation block, still go to the database.
+@Component
+public class OrderIdFilter implements MeterBinder {
+    private final long blockSpan;
+    private volatile IdBitmap current;
+    private volatile IdBitmap building;
+    private final LongAdder rejected = new LongAdder();
+
+    public OrderIdFilter() {
+        this(1);
+    }
+
+    @Autowired
+    public OrderIdFilter(OrderShards orderShards) {
+        this(orderShards.count());
+    }
+
+    // A block of local sequence values spans allocationSize * MAX_SHARDS ids once sharded, see OrderShards.encode.
+    private OrderIdFilter(int shardCount) {
+        this.blockSpan = (long) OrderEntity.ID_ALLOCATION_SIZE * (shardCount > 1 ? OrderShards.MAX_SHARDS : 1);
+    }
+
+    public boolean mightContain(long id) {
+        IdBitmap bitmap = current;
+        if (bitmap == null || id > bitmap.highWater - blockSpan || bitmap.contains(id)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // Called after the insert committed. A rebuild in progress gets the id too, in case its scan already passed it.
+    public void add(long id) {
+        IdBitmap next = building;
+        if (next != null) {
+            next.set(id);
+        }
+        IdBitmap bitmap = current;
+        if (bitmap != null) {
+            bitmap.set(id);
+        }
+    }
+
+    public void remove(long id) {
+        IdBitmap next = building;
+        if (next != null) {
+            next.clear(id);
+        }
+        IdBitmap bitmap = current;
+        if (bitmap != null) {
+            bitmap.clear(id);
+        }
+    }
+
+    // scan must hand every existing id to the consumer; lookups keep using the previous bitmap until it is done.
+    public synchronized void rebuild(Consumer<LongConsumer> scan) {
+        IdBitmap next = new IdBitmap();
+        building = next;
+        try {
+            long[] highest = {0};
+            scan.accept(id -> {
+                next.set(id);
+                highest[0] = Math.max(highest[0], id);
+            });
+            next.highWater = highest[0];
+            current = next;
+        } finally {
+            building = null;
+        }
+    }
+
+    public boolean isBuilt() {
+        return current != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("order.id_filter.rejected", rejected, LongAdder::sum)
+                .description("findById lookups answered as not found without a database query")
+                .register(registry);
+        Gauge.builder("order.id_filter.memory", this, filter -> filter.current == null ? 0 : filter.current.bytes())
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static final class IdBitmap {
+        private static final int PAGE_SHIFT = 16;
+        private static final int WORDS_PER_PAGE = 1 << (PAGE_SHIFT - 6);
+
+        // Copy-on-write directory: a new page is published by swapping the whole array, so readers never see a
+        // half-initialised slot. Pages are only added every 65536 ids.
+        private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+        // Highest id the scan saw; adds do not move it, other writers may still fill in ids below our own.
+        private long highWater;
+
+        boolean contains(long id) {
+            AtomicLongArray page = page(id);
+            return page != null && (page.get(word(id)) & mask(id)) != 0;
+        }
+
+        void set(long id) {
+            if (id < 0) {
+                return;
+            }
+            AtomicLongArray page = page(id);
+            if (page == null) {
+                page = createPage(id >>> PAGE_SHIFT);
+            }
+            page.accumulateAndGet(word(id), mask(id), (bits, mask) -> bits | mask);
+        }
+
+        void clear(long id) {
+            AtomicLongArray page = page(id);
+            if (page != null) {
+                page.accumulateAndGet(word(id), ~mask(id), (bits, mask) -> bits & mask);
+            }
+        }
+
+        long bytes() {
+            return (long) pages.length * Long.BYTES + Arrays.stream(pages).filter(page -> page != null).count() * WORDS_PER_PAGE * Long.BYTES;
+        }
+
+        private AtomicLongArray page(long id) {
+            AtomicLongArray[] directory = pages;
+            long index = id >>> PAGE_SHIFT;
+            return id < 0 || index >= directory.length ? null : directory[(int) index];
+        }
+
+        private synchronized AtomicLongArray createPage(long index) {
+            AtomicLongArray[] directory = pages;
+            if (index < directory.length && directory[(int) index] != null) {
+                return directory[(int) index];
+            }
+            AtomicLongArray[] grown = Arrays.copyOf(directory, (int) Math.max(directory.length, index + 1));
+            AtomicLongArray page = new AtomicLongArray(WORDS_PER_PAGE);
+            grown[(int) index] = page;
+            pages = grown;
+            return page;
+        }
+
+        private static int word(long id) {
+            return (int) ((id >>> 6) & (WORDS_PER_PAGE - 1));
+        }
+
+        private static long mask(long id) {
+            return 1L << (id & 63);
+        }
+    }
+}
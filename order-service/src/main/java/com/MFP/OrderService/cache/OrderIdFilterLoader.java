@@ -0,0 +1,80 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.config.OrderIdFilterProperties;
+import com.MFP.OrderService.datasource.PrimaryReads;
+import com.MFP.OrderService.shard.OrderShards;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.LongConsumer;
+
+// Fills OrderIdFilter from an id-only keyset scan (primary key index) at startup, before the web server accepts
+// requests, and again every rebuild-interval so creates and deletes made by other instances are picked up. The scan
+// reads the primary so ids created just before it are not missed on a lagging replica, and walks the shards one after
+// another. Archived ids are loaded too, findById still resolves them.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order.id-filter", name = "enabled", havingValue = "true")
+public class OrderIdFilterLoader implements SmartInitializingSingleton {
+    private final OrderIdFilter orderIdFilter;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderShards orderShards;
+    private final OrderIdFilterProperties properties;
+
+    public OrderIdFilterLoader(OrderIdFilter orderIdFilter, OrderRepository orderRepository,
+                               ArchivedOrderRepository archivedOrderRepository, OrderShards orderShards,
+                               OrderIdFilterProperties properties) {
+        this.orderIdFilter = orderIdFilter;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderShards = orderShards;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${order.id-filter.rebuild-interval:10m}", initialDelayString = "${order.id-filter.rebuild-interval:10m}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        long[] count = new long[1];
+        orderIdFilter.rebuild(ids -> {
+            for (int shard = 0; shard < orderShards.count(); shard++) {
+                orderShards.run(shard, () -> PrimaryReads.call(() -> {
+                    count[0] += scan(orderRepository::findIdsAfter, ids);
+                    count[0] += scan(archivedOrderRepository::findIdsAfter, ids);
+                    return null;
+                }));
+            }
+        });
+        log.info("Order id filter rebuilt with {} ids in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long scan(BiFunction<Long, Limit, List<Long>> idsAfter, LongConsumer ids) {
+        long count = 0;
+        long after = 0;
+        List<Long> page;
+        do {
+            page = idsAfter.apply(after, Limit.of(properties.getScanBatchSize()));
+            for (Long id : page) {
+                ids.accept(id);
+            }
+            count += page.size();
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == properties.getScanBatchSize());
+        return count;
+    }
+}
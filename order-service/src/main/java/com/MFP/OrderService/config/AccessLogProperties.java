@@ -0,0 +1,20 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.access-log")
+public class AccessLogProperties {
+    private boolean enabled = true;
+    // Share of successful (< 400) requests that are logged; errors and slow requests are always logged.
+    private double successSampleRate = 1.0;
+    private Duration slowThreshold = Duration.ofSeconds(1);
+    // Read by logback-spring.xml: the JSON file and the async appender's queue capacity.
+    private String file = "logs/order-access.log";
+    private int queueSize = 8192;
+}
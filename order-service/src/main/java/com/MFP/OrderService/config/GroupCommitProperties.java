@@ -0,0 +1,19 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.group-commit")
+public class GroupCommitProperties {
+    private boolean enabled = false;
+    private int queueCapacity = 10_000;
+    private int writerThreads = 2;
+    private int maxBatchSize = 500;
+    private Duration maxBatchDelay = Duration.ofMillis(5);
+    private Duration offerTimeout = Duration.ofMillis(50);
+}
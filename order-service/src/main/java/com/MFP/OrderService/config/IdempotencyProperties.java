@@ -0,0 +1,16 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofHours(24);
+    private int maxKeyLength = 255;
+}
@@ -0,0 +1,36 @@
+package com.MFP.OrderService.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// With spring.main.lazy-initialization=true (application-fast-startup.yaml) these beans are still created at startup:
+// the aggregate and id filter rebuilds, the group-commit writers, the @Scheduled pollers and the meter binders.
+// Everything else (controllers, services, mappers) is created on first use.
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerOrderServiceBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (SmartInitializingSingleton.class.isAssignableFrom(beanType)
+                || SmartLifecycle.class.isAssignableFrom(beanType)
+                || MeterBinder.class.isAssignableFrom(beanType)
+                || hasScheduledMethod(beanType));
+    }
+
+    private static boolean hasScheduledMethod(Class<?> beanType) {
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> scheduled.set(true),
+                method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return scheduled.get();
+    }
+}
@@ -0,0 +1,22 @@
+package com.MFP.OrderService.config;
+
+import com.MFP.OrderService.enums.OrderStatus;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.archive")
+public class OrderArchiveProperties {
+    private boolean enabled = false;
+    // Terminal statuses only; archived orders can no longer be updated.
+    private Set<OrderStatus> statuses = EnumSet.of(OrderStatus.Cancelled, OrderStatus.Rejected);
+    private Duration minAge = Duration.ofDays(30);
+    private Duration interval = Duration.ofHours(1);
+    private int batchSize = 500;
+}
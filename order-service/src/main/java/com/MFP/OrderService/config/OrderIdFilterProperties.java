@@ -0,0 +1,18 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.id-filter")
+public class OrderIdFilterProperties {
+    // Only for a single writer: orders created by other instances can get a 404 until the next rebuild.
+    private boolean enabled = false;
+    // Full rescan that picks up orders created or deleted by other instances.
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+    private int scanBatchSize = 10_000;
+}
@@ -0,0 +1,20 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.import")
+public class OrderImportProperties {
+    // Lines per createOrders call, at most OrderService.MAX_BATCH_SIZE.
+    private int chunkSize = 1000;
+    private int writerThreads = 4;
+    // Chunks read ahead of the writers; the reader blocks once this many are waiting or being written.
+    private int maxPendingChunks = 8;
+    private int readBufferSize = 1 << 20;
+    private Duration progressInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,20 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.outbox")
+public class OutboxProperties {
+    private boolean relayEnabled = true;
+    private int batchSize = 200;
+    private Duration pollInterval = Duration.ofMillis(500);
+    private String publisher = "memory";
+    private int memoryCapacity = 10_000;
+    private Path file = Path.of("outbox", "order-events.ndjson");
+}
@@ -0,0 +1,75 @@
+package com.MFP.OrderService.config;
+
+import com.MFP.OrderService.datasource.ReplicaDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Splits reads from writes below JPA: the application DataSource is a LazyConnectionDataSourceProxy that fetches its
+// connection on the first statement, from the replicas when the transaction is read-only (SimpleJpaRepository reads,
+// @Transactional(readOnly = true)) and from the primary otherwise. Replaces Boot's DataSource auto-configuration.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "order.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(dataSourceProperties.getName())) {
+            dataSource.setPoolName(dataSourceProperties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    ReplicaDataSource replicaDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                        ReadReplicaProperties properties, DataSourceProperties dataSourceProperties,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("order.read-replicas.enabled is set but no order.read-replicas.nodes are configured");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.getNodes().get(i);
+            String name = StringUtils.hasText(node.getName()) ? node.getName() : "replica-" + i;
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + name);
+            config.setJdbcUrl(node.getUrl());
+            config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            config.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.determineUsername());
+            config.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.determinePassword());
+            config.setReadOnly(true);
+            config.setMaximumPoolSize(properties.getMaximumPoolSize());
+            config.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            // A replica that is down at startup must not keep the service from starting; it is retried after the cooldown.
+            config.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.put(name, new HikariDataSource(config));
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, properties.getFailureCooldown());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,31 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.read-replicas")
+public class ReadReplicaProperties {
+    private boolean enabled = false;
+    private List<Node> nodes = new ArrayList<>();
+    private Duration failureCooldown = Duration.ofSeconds(30);
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private int maximumPoolSize = 10;
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private long readYourWritesMaximumSize = 100_000;
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+    }
+}
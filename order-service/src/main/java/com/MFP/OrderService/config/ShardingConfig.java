@@ -0,0 +1,68 @@
+package com.MFP.OrderService.config;
+
+import com.MFP.OrderService.shard.ShardRoutingDataSource;
+import com.MFP.OrderService.shard.ShardSchemaIntegrator;
+import com.MFP.OrderService.shard.ShardedSequenceGenerator;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Puts orders on several databases: one Hikari pool per entry of order.sharding.shards behind a routing DataSource,
+// one EntityManagerFactory over all of them. Replaces Boot's DataSource auto-configuration; spring.datasource only
+// supplies the driver and default credentials.
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "order.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    @Primary
+    ShardRoutingDataSource dataSource(ShardingProperties properties, ReadReplicaProperties readReplicaProperties,
+                                      DataSourceProperties dataSourceProperties, ObjectProvider<MeterRegistry> meterRegistry) {
+        if (readReplicaProperties.isEnabled()) {
+            throw new IllegalStateException("order.sharding and order.read-replicas cannot be enabled together");
+        }
+        if (properties.getShards().isEmpty()) {
+            throw new IllegalStateException("order.sharding.enabled is set but no order.sharding.shards are configured");
+        }
+        List<HikariDataSource> shards = new ArrayList<>(properties.getShards().size());
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("shard-" + i);
+            config.setJdbcUrl(shard.getUrl());
+            config.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            config.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername());
+            config.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword());
+            config.setMaximumPoolSize(properties.getMaximumPoolSize());
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            shards.add(new HikariDataSource(config));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // The shard count and legacy id limit reach ShardedSequenceGenerator through the Hibernate settings, the integrator
+    // creates the schema on every shard but the first.
+    @Bean
+    HibernatePropertiesCustomizer shardingHibernateProperties(ShardingProperties properties) {
+        int shardCount = properties.getShards().size();
+        return hibernateProperties -> {
+            hibernateProperties.put(ShardedSequenceGenerator.SHARD_COUNT, String.valueOf(shardCount));
+            hibernateProperties.put(ShardedSequenceGenerator.LEGACY_ID_LIMIT, String.valueOf(properties.getLegacyIdLimit()));
+            hibernateProperties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> List.of(new ShardSchemaIntegrator(shardCount)));
+        };
+    }
+}
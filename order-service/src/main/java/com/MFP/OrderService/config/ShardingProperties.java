@@ -0,0 +1,32 @@
+package com.MFP.OrderService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    // Shard number = position in this list; part of every order id, so entries may only be appended, up to
+    // OrderShards.MAX_SHARDS. Before appending, pin the slots of the existing shards, otherwise the even split moves users.
+    private List<Shard> shards = new ArrayList<>();
+    // Highest order id written before sharding was enabled; those plain ids stay on shard 0, the former single database.
+    private long legacyIdLimit = 0;
+    private int maximumPoolSize = 10;
+    private int scatterThreads = 8;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        // User slots (0-1023) of this shard, e.g. "0-511" or "0-255,768-1023"; when no shard sets them they are split evenly.
+        private String slots;
+    }
+}
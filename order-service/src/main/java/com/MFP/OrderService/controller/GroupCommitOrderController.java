@@ -0,0 +1,33 @@
+package com.MFP.OrderService.controller;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.service.GroupCommitOrderWriter;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@RestController
+@RequestMapping("api/order/v1")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "order.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitOrderController {
+    private final GroupCommitOrderWriter groupCommitOrderWriter;
+
+    @PostMapping("/async")
+    public CompletableFuture<ResponseEntity<OrderResponse>> createOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest) {
+        log.debug("POST /order/async request received");
+        return groupCommitOrderWriter.submit(createOrderRequest)
+                .thenApply(createdOrder -> new ResponseEntity<>(createdOrder, HttpStatus.CREATED));
+    }
+}
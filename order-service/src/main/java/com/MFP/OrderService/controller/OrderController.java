@@ -1,16 +1,35 @@
 package com.MFP.OrderService.controller;
 
+import com.MFP.OrderService.dto.BatchCreateOrderResponse;
+import com.MFP.OrderService.dto.BulkStatusUpdateRequest;
+import com.MFP.OrderService.dto.BulkStatusUpdateResponse;
 import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderCacheStatsResponse;
+import com.MFP.OrderService.dto.OrderPageResponse;
 import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.OrderSliceResponse;
+import com.MFP.OrderService.dto.OrderStatusAggregatesResponse;
 import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.dto.UserOrderAggregateResponse;
+import com.MFP.OrderService.enums.OrderStatus;
 import com.MFP.OrderService.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
 @Slf4j
 @RestController
@@ -18,44 +37,131 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest) {
-        System.out.println(createOrderRequest.getUserId());
-        log.info("POST /order request received ");
-        OrderResponse createdOrder = orderService.createOrder(createOrderRequest);
-        log.info("POST / Create order successfully with orderId={} ",createdOrder.getId() );
+    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest,
+                                                     @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        log.debug("POST /order request received ");
+        OrderResponse createdOrder = idempotencyKey == null
+                ? orderService.createOrder(createOrderRequest)
+                : orderService.createOrder(createOrderRequest, idempotencyKey);
+        log.debug("POST / Create order successfully with orderId={} ",createdOrder.getId() );
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateOrderResponse> createOrders(@RequestBody List<CreateOrderRequest> createOrderRequests) {
+        log.debug("POST /order/batch request received with {} orders", createOrderRequests.size());
+        BatchCreateOrderResponse batchResponse = orderService.createOrders(createOrderRequests);
+        log.debug("POST /Batch created {} orders, rejected {}", batchResponse.getCreated(), batchResponse.getRejected());
+        HttpStatus status = batchResponse.getRejected() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(batchResponse, status);
+    }
+    @PostMapping("/batch/status")
+    public ResponseEntity<BulkStatusUpdateResponse> updateStatuses(@Valid @RequestBody BulkStatusUpdateRequest bulkStatusUpdateRequest) {
+        log.debug("POST /order/batch/status request received for status={}", bulkStatusUpdateRequest.getStatus());
+        BulkStatusUpdateResponse response = orderService.updateStatuses(bulkStatusUpdateRequest);
+        log.debug("POST /Batch status updated {} orders", response.getUpdated());
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
     @PutMapping("/{id}")
-    public ResponseEntity<OrderResponse> updateOrderById(@Valid @RequestBody UpdateOrderRequestDto updateOrderRequestDto, @PathVariable Long id) {
-        log.info("PUT /order request Updated with id {}", id);
-        OrderResponse updatedOrder = orderService.updateOrder(updateOrderRequestDto, id);
-        log.info("PUT /Update order successfully with id={} ", updatedOrder.getId());
-        return new ResponseEntity<>(updatedOrder, HttpStatus.ACCEPTED);
+    public ResponseEntity<OrderResponse> updateOrderById(@Valid @RequestBody UpdateOrderRequestDto updateOrderRequestDto, @PathVariable Long id,
+                                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.debug("PUT /order request Updated with id {}", id);
+        OrderResponse updatedOrder = orderService.updateOrder(updateOrderRequestDto, id, OrderETag.expectedVersion(id, ifMatch));
+        log.debug("PUT /Update order successfully with id={} ", updatedOrder.getId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).eTag(OrderETag.of(updatedOrder)).body(updatedOrder);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteOrderById(@PathVariable Long id) {
-        log.info("DELETE /order request Delete with id {}", id);
+        log.debug("DELETE /order request Delete with id {}", id);
         String deleted = orderService.deleteById(id);
-        log.info("DELETE /Delete order successfully with id={} ", deleted);
+        log.debug("DELETE /Delete order successfully with id={} ", deleted);
         return new ResponseEntity<>(deleted, HttpStatus.OK);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> findById(@PathVariable Long id) {
-        log.info("GET /order request fetch by id={}",id);
+    public ResponseEntity<OrderResponse> findById(@PathVariable Long id, WebRequest webRequest) {
+        log.debug("GET /order request fetch by id={}",id);
         OrderResponse orderResponse = orderService.findById(id);
-        log.info("GET /Order successfully fetched with id={} ", orderResponse.getId());
+        log.debug("GET /Order successfully fetched with id={} ", orderResponse.getId());
+        // The tag comes from the cached OrderResponse, so a matching If-None-Match costs neither a query nor serialization.
+        // checkNotModified also writes the ETag header, for 304 and full responses alike.
+        String eTag = OrderETag.of(orderResponse);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         return new ResponseEntity<>(orderResponse, HttpStatus.FOUND);
     }
 
     @GetMapping
     public ResponseEntity<List<OrderResponse>> gatAllOrders() {
-        log.info("GET /All Orders fetched");
+        log.debug("GET /All Orders fetched");
         List<OrderResponse> ordersResponse = orderService.findAll();
-        log.info("GET /{} Orders successfully fetched", ordersResponse.size());
+        log.debug("GET /{} Orders successfully fetched", ordersResponse.size());
         return new ResponseEntity<>(ordersResponse, HttpStatus.FOUND);
     }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<OrderCacheStatsResponse> cacheStats() {
+        return new ResponseEntity<>(orderService.cacheStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("/aggregates/status")
+    public ResponseEntity<OrderStatusAggregatesResponse> aggregatesByStatus() {
+        return new ResponseEntity<>(orderService.aggregatesByStatus(), HttpStatus.OK);
+    }
+
+    @GetMapping("/aggregates/users/{userId}")
+    public ResponseEntity<UserOrderAggregateResponse> aggregatesForUser(@PathVariable Long userId) {
+        return new ResponseEntity<>(orderService.aggregatesForUser(userId), HttpStatus.OK);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<OrderPageResponse> findPage(@RequestParam(required = false) Long after,
+                                                      @RequestParam(defaultValue = "100") int size) {
+        log.debug("GET /Orders page requested after id={} size={}", after, size);
+        OrderPageResponse page = orderService.findPage(after, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<OrderSliceResponse> findByUser(@PathVariable Long userId,
+                                                         @RequestParam(required = false) BigDecimal minAmount,
+                                                         @RequestParam(required = false) BigDecimal maxAmount,
+                                                         @RequestParam(defaultValue = "0") int page,
+                                                         @RequestParam(defaultValue = "100") int size) {
+        log.debug("GET /Orders for userId={} page={} size={}", userId, page, size);
+        return new ResponseEntity<>(orderService.findByUser(userId, minAmount, maxAmount, page, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/status/{status}")
+    public ResponseEntity<OrderSliceResponse> findByStatus(@PathVariable OrderStatus status,
+                                                           @RequestParam(required = false) BigDecimal minAmount,
+                                                           @RequestParam(required = false) BigDecimal maxAmount,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "100") int size) {
+        log.debug("GET /Orders with status={} page={} size={}", status, page, size);
+        return new ResponseEntity<>(orderService.findByStatus(status, minAmount, maxAmount, page, size), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        log.debug("GET /All Orders streaming started");
+        ObjectWriter orderWriter = objectMapper.writerFor(OrderResponse.class);
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(outputStream);
+            orderService.streamAll(order -> {
+                try {
+                    buffered.write(orderWriter.writeValueAsBytes(order));
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -0,0 +1,35 @@
+package com.MFP.OrderService.controller;
+
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.exception.OrderVersionMismatchException;
+
+// Strong ETags of the form "<id>-<version>". The version column changes on every write, so equal tags mean equal bodies.
+final class OrderETag {
+    private OrderETag() {
+    }
+
+    static String of(OrderResponse orderResponse) {
+        if (orderResponse.getVersion() == null) {
+            return null;
+        }
+        return "\"" + orderResponse.getId() + "-" + orderResponse.getVersion() + "\"";
+    }
+
+    // Returns the version an If-Match header asks for, or null when any version is fine (no header or "*").
+    // If-Match uses the strong comparison, so weak tags and tags of another order can never match.
+    static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + "-";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the mismatch below
+            }
+        }
+        throw new OrderVersionMismatchException("If-Match " + tag + " does not match order with id=" + id);
+    }
+}
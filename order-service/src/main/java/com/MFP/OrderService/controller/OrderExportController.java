@@ -0,0 +1,32 @@
+package com.MFP.OrderService.controller;
+
+import com.MFP.OrderService.export.OrderCsvExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@Slf4j
+@RestController
+@RequestMapping("api/order/v1")
+@RequiredArgsConstructor
+public class OrderExportController {
+    static final String APPLICATION_GZIP = "application/gzip";
+
+    private final OrderCsvExporter orderCsvExporter;
+
+    @GetMapping(value = "/export", produces = APPLICATION_GZIP)
+    public ResponseEntity<StreamingResponseBody> exportOrders() {
+        log.debug("GET /export Orders export started");
+        StreamingResponseBody body = orderCsvExporter::export;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, APPLICATION_GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("orders.csv.gz").build().toString())
+                .body(body);
+    }
+}
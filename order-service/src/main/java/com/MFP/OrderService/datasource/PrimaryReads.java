@@ -0,0 +1,28 @@
+package com.MFP.OrderService.datasource;
+
+import java.util.function.Supplier;
+
+// Pins read-only work on the current thread to the primary, for reads that must not see replication lag.
+// ReplicaDataSource checks the pin when the read-only transaction fetches its connection.
+public final class PrimaryReads {
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        if (isPinned()) {
+            return action.get();
+        }
+        PINNED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            PINNED.remove();
+        }
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
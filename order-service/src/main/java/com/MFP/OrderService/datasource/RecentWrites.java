@@ -0,0 +1,32 @@
+package com.MFP.OrderService.datasource;
+
+import com.MFP.OrderService.config.ReadReplicaProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+// Ids this instance wrote within read-your-writes-window; reads of them go to the primary until the replicas have
+// caught up. Does nothing when read replicas are disabled.
+@Component
+public class RecentWrites {
+    private final Cache<Long, Boolean> ids;
+
+    public RecentWrites(ReadReplicaProperties properties) {
+        this.ids = properties.isEnabled()
+                ? Caffeine.newBuilder()
+                        .maximumSize(properties.getReadYourWritesMaximumSize())
+                        .expireAfterWrite(properties.getReadYourWritesWindow())
+                        .build()
+                : null;
+    }
+
+    public void record(Long id) {
+        if (ids != null && id != null) {
+            ids.put(id, Boolean.TRUE);
+        }
+    }
+
+    public boolean contains(Long id) {
+        return ids != null && id != null && ids.getIfPresent(id) != null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.MFP.OrderService.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Read-only connections for LazyConnectionDataSourceProxy: round-robin over the replica pools, skipping replicas whose
+// last connection attempt failed within failure-cooldown. When every replica is down, or PrimaryReads pinned the
+// thread, the connection comes from the primary instead.
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long cooldownNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaDataSource(DataSource primary, Map<String, ? extends DataSource> replicas, Duration failureCooldown) {
+        this(primary, replicas, failureCooldown, System::nanoTime);
+    }
+
+    ReplicaDataSource(DataSource primary, Map<String, ? extends DataSource> replicas, Duration failureCooldown,
+                      LongSupplier nanoTime) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.cooldownNanos = failureCooldown.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReads.isPinned() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            long now = nanoTime.getAsLong();
+            if (replica.isDown(now)) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException ex) {
+                replica.markDown(now + cooldownNanos);
+                log.warn("Read replica {} is unavailable, skipping it for {} ms: {}", replica.name, cooldownNanos / 1_000_000,
+                        ex.getMessage());
+            }
+        }
+        fallbacks.increment();
+        log.debug("No read replica available, reading from the primary");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are configured per node");
+    }
+
+    public int availableReplicas() {
+        long now = nanoTime.getAsLong();
+        int available = 0;
+        for (Replica replica : replicas) {
+            if (!replica.isDown(now)) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("order.read_replicas.available", this, ReplicaDataSource::availableReplicas)
+                .description("Read replicas not in failure cooldown")
+                .register(registry);
+        Gauge.builder("order.read_replicas.configured", replicas, List::size)
+                .register(registry);
+        FunctionCounter.builder("order.read_replicas.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only connections taken from the primary because no replica was available")
+                .register(registry);
+    }
+
+    // Closes the replica pools; the primary belongs to the application context.
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile long downUntil;
+        private volatile boolean failed;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(long until) {
+            downUntil = until;
+            failed = true;
+        }
+
+        private boolean isDown(long now) {
+            return failed && now - downUntil < 0;
+        }
+    }
+}
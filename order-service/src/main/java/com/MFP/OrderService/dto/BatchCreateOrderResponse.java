@@ -0,0 +1,16 @@
+package com.MFP.OrderService.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchCreateOrderResponse {
+    private int created;
+    private int rejected;
+    private List<BatchOrderResult> results;
+}
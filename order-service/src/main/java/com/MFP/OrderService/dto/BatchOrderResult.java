@@ -0,0 +1,16 @@
+package com.MFP.OrderService.dto;
+
+import com.MFP.OrderService.enums.BatchItemStatus;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchOrderResult {
+    private int index;
+    private BatchItemStatus status;
+    private OrderResponse order;
+    private String error;
+}
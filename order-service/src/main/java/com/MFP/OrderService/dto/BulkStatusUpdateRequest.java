@@ -0,0 +1,21 @@
+package com.MFP.OrderService.dto;
+
+import com.MFP.OrderService.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+
+// Either ids, or a filter on fromStatus (optionally narrowed to one userId).
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateRequest {
+    private List<Long> ids;
+    private OrderStatus fromStatus;
+    private Long userId;
+    @NotNull(message = "Order status must not be null")
+    private OrderStatus status;
+}
@@ -0,0 +1,19 @@
+package com.MFP.OrderService.dto;
+
+import com.MFP.OrderService.enums.OrderStatus;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStatusUpdateResponse {
+    private OrderStatus status;
+    private int updated;
+    private int notFound;
+    private int cancelled;
+    private List<StatusUpdateResult> results;
+}
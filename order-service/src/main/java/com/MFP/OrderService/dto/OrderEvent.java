@@ -0,0 +1,22 @@
+package com.MFP.OrderService.dto;
+
+import com.MFP.OrderService.enums.OrderEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+    private Long eventId;
+    private OrderEventType type;
+    private Long orderId;
+    private Instant occurredAt;
+    // OrderResponse JSON as written to the outbox, null for OrderDeleted.
+    @JsonRawValue
+    private String order;
+}
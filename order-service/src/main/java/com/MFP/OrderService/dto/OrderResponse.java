@@ -1,6 +1,7 @@
 package com.MFP.OrderService.dto;
 
 import com.MFP.OrderService.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -16,4 +17,6 @@ public class OrderResponse {
     private Long userId;
     private BigDecimal amount;
     private OrderStatus status;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
 }
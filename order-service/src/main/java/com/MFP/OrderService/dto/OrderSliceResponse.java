@@ -0,0 +1,17 @@
+package com.MFP.OrderService.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSliceResponse {
+    private List<OrderResponse> orders;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
@@ -0,0 +1,19 @@
+package com.MFP.OrderService.dto;
+
+import com.MFP.OrderService.enums.OrderStatus;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusAggregatesResponse {
+    private long totalOrders;
+    private BigDecimal totalAmount;
+    private Map<OrderStatus, Long> counts;
+    private Map<OrderStatus, BigDecimal> amounts;
+}
@@ -0,0 +1,14 @@
+package com.MFP.OrderService.dto;
+
+import com.MFP.OrderService.enums.StatusUpdateOutcome;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatusUpdateResult {
+    private Long id;
+    private StatusUpdateOutcome outcome;
+}
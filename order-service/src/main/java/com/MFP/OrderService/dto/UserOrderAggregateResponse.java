@@ -0,0 +1,16 @@
+package com.MFP.OrderService.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserOrderAggregateResponse {
+    private Long userId;
+    private long orderCount;
+    private BigDecimal totalAmount;
+}
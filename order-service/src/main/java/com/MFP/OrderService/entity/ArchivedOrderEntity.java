@@ -0,0 +1,29 @@
+package com.MFP.OrderService.entity;
+
+import com.MFP.OrderService.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Cold copy of an OrderEntity moved by OrderArchiver. Rows keep their id, so the shard encoded in it still holds and
+// findById can fall back to this table; they are never updated again.
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "orders_archive")
+public class ArchivedOrderEntity {
+    @Id
+    private Long id;
+    private Long userId;
+    private BigDecimal amount;
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+    private Long version;
+    private Instant updatedAt;
+    private Instant archivedAt;
+}
@@ -0,0 +1,24 @@
+package com.MFP.OrderService.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Written in the same transaction as one shard's part of a keyed OrderService.createOrders batch, on that shard, so a
+// repeated batch skips the shards that already committed. OrderImporter keys its chunks by import id and chunk number.
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_batch_markers")
+public class OrderBatchMarkerEntity {
+    @Id
+    @Column(length = 100)
+    private String batchKey;
+    private int orders;
+    @Column(nullable = false)
+    private Instant createdAt;
+}
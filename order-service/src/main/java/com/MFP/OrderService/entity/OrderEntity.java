@@ -1,10 +1,14 @@
 package com.MFP.OrderService.entity;
 
 import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.shard.ShardedSequence;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Getter
@@ -12,13 +16,33 @@ import java.math.BigDecimal;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_orders_user_amount", columnList = "user_id, amount, id"),
+        @Index(name = "idx_orders_status_id", columnList = "status, id"),
+        @Index(name = "idx_orders_status_amount", columnList = "status, amount, id"),
+        @Index(name = "idx_orders_status_updated", columnList = "status, updated_at")
+})
 public class OrderEntity {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Carries the shard of the row, see OrderShards.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @ShardedSequence(name = "orders_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     private Long userId;
     private BigDecimal amount;
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
+    // Bumped by every write, including the bulk JPQL updates; exposed as the ETag. The default fills existing rows.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+    // Time of the last write, set on insert and update and by the bulk JPQL updates; OrderArchiver ages orders by it.
+    // The default fills existing rows, so they start ageing when the column is added.
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(nullable = false)
+    private Instant updatedAt;
 }
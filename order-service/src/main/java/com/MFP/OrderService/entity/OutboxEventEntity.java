@@ -0,0 +1,31 @@
+package com.MFP.OrderService.entity;
+
+import com.MFP.OrderService.enums.OrderEventType;
+import com.MFP.OrderService.shard.ShardedSequence;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_outbox")
+public class OutboxEventEntity {
+    // Unique across shards, so published event ids are too.
+    @Id
+    @ShardedSequence(name = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+    @Column(nullable = false)
+    private Long orderId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderEventType eventType;
+    @Column(length = 4000)
+    private String payload;
+    @Column(nullable = false)
+    private Instant createdAt;
+}
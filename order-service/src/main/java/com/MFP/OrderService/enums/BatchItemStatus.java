@@ -0,0 +1,6 @@
+package com.MFP.OrderService.enums;
+
+public enum BatchItemStatus {
+    Created,
+    Rejected
+}
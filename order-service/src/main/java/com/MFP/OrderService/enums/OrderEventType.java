@@ -0,0 +1,7 @@
+package com.MFP.OrderService.enums;
+
+public enum OrderEventType {
+    OrderCreated,
+    OrderUpdated,
+    OrderDeleted
+}
@@ -0,0 +1,7 @@
+package com.MFP.OrderService.enums;
+
+public enum StatusUpdateOutcome {
+    Updated,
+    NotFound,
+    Cancelled
+}
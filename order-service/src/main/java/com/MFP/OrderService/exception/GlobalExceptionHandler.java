@@ -1,7 +1,10 @@
 package com.MFP.OrderService.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -12,7 +15,10 @@ import java.time.LocalDateTime;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             MethodArgumentNotValidException ex,
@@ -24,6 +30,7 @@ public class GlobalExceptionHandler {
                 .findFirst()
                 .orElse("Validation Failed");
         log.warn("Validation Error: [{}]", message);
+        countException(ex);
 
         return ResponseEntity.badRequest().body(
                 new ErrorResponse(
@@ -37,6 +44,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(InvalidOrderException.class)
     public ResponseEntity<ErrorResponse> handelInvalidOrderException(InvalidOrderException ex, HttpServletRequest request){
         log.warn("Invalid Order Exception: {}", ex.getMessage());
+        countException(ex);
         return ResponseEntity.badRequest().body(
                 new ErrorResponse(
                         400,
@@ -50,7 +58,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(OrderAlreadyExistsException.class)
     public ResponseEntity<ErrorResponse> handleOrderAlreadyExists(OrderAlreadyExistsException ex, HttpServletRequest request){
         log.warn("Order Already Exists Exception: {}", ex.getMessage());
-        return ResponseEntity.badRequest().body(
+        countException(ex);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
                 new ErrorResponse(
                         409,
                         "Order_Already_Exists",
@@ -63,6 +72,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(OrderNotFoundException.class)
     public ResponseEntity<ErrorResponse> handelOrderNotFoundException(OrderNotFoundException ex, HttpServletRequest request){
         log.warn("Order Not Found Exception: {}", ex.getMessage());
+        countException(ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(
                 new ErrorResponse(
                         404,
@@ -73,9 +83,38 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OrderVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleOrderVersionMismatchException(OrderVersionMismatchException ex, HttpServletRequest request){
+        log.warn("Order Version Mismatch Exception: {}", ex.getMessage());
+        countException(ex);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(
+                new ErrorResponse(
+                        412,
+                        "Precondition_Failed",
+                        ex.getMessage(),
+                        request.getRequestURI()
+                )
+        );
+    }
+
+    @ExceptionHandler(OrderQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleOrderQueueFullException(OrderQueueFullException ex, HttpServletRequest request){
+        log.warn("Order Queue Full Exception: {}", ex.getMessage());
+        countException(ex);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(
+                new ErrorResponse(
+                        503,
+                        "Service_Unavailable",
+                        ex.getMessage(),
+                        request.getRequestURI()
+                )
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, HttpServletRequest request){
         log.warn("Unhandled Exception: {}", ex.getMessage());
+        countException(ex);
         return ResponseEntity.badRequest().body(
                 new ErrorResponse(
                         500,
@@ -85,4 +124,8 @@ public class GlobalExceptionHandler {
                 )
         );
     }
+
+    private void countException(Exception ex){
+        meterRegistry.counter("order.exceptions", "exception", ex.getClass().getSimpleName()).increment();
+    }
 }
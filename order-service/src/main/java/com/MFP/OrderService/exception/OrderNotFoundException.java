@@ -1,7 +1,8 @@
 package com.MFP.OrderService.exception;
 
+// Thrown for every unknown id, often by scrapers; the handler only logs the message, so no stack trace is captured.
 public class OrderNotFoundException extends RuntimeException{
     public OrderNotFoundException(String message){
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,7 @@
+package com.MFP.OrderService.exception;
+
+public class OrderQueueFullException extends RuntimeException{
+    public OrderQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.MFP.OrderService.exception;
+
+public class OrderVersionMismatchException extends RuntimeException{
+    public OrderVersionMismatchException(String message) {
+        super(message);
+    }
+}
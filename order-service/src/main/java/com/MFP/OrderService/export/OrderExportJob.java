@@ -0,0 +1,30 @@
+package com.MFP.OrderService.export;
+
+import com.MFP.OrderService.OrderServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Command line export: starts the service without the web server, the outbox relay, the id filter or the archiver,
+// writes the dump to order.export.file (orders.csv.gz by default) and exits.
+//   java -cp order-service.jar -Dloader.main=com.MFP.OrderService.export.OrderExportJob \
+//        org.springframework.boot.loader.launch.PropertiesLauncher --order.export.file=/data/orders.csv.gz
+public final class OrderExportJob {
+    private OrderExportJob() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("order.outbox.relay-enabled=false", "order.id-filter.enabled=false", "order.archive.enabled=false")
+                .run(args)) {
+            Path file = Path.of(context.getEnvironment().getProperty("order.export.file", "orders.csv.gz"));
+            OrderExportResult result = context.getBean(OrderCsvExporter.class).export(file);
+            System.out.printf("Exported %d orders to %s in %d ms (%.0f rows/s)%n",
+                    result.rows(), file.toAbsolutePath(), result.elapsedMillis(), result.rowsPerSecond());
+        }
+    }
+}
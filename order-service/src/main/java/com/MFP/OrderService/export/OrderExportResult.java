@@ -0,0 +1,13 @@
+package com.MFP.OrderService.export;
+
+import java.util.concurrent.TimeUnit;
+
+public record OrderExportResult(long rows, long elapsedNanos) {
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+}
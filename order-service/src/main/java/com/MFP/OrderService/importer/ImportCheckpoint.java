@@ -0,0 +1,145 @@
+package com.MFP.OrderService.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Progress of one import, saved after every finished chunk so a stopped import continues where it left off. Chunks are
+// fixed runs of chunk-size lines and finish out of order: offset, line and chunk mark the end of the longest finished
+// prefix, and chunks finished beyond it are listed so a resume skips them instead of importing them twice. Only chunks
+// that were being written when the import stopped run again; importId keys their batch markers (see
+// OrderService.createOrders), so the shards they had already committed are not inserted twice.
+final class ImportCheckpoint {
+    private final Path file;
+    private final long inputSize;
+    private String importId;
+    private final TreeMap<Long, long[]> finishedAhead = new TreeMap<>();
+    private long offset;
+    private long line;
+    private long chunk;
+    private long imported;
+    private long rejected;
+    private boolean complete;
+
+    private ImportCheckpoint(Path file, long inputSize) {
+        this.file = file;
+        this.inputSize = inputSize;
+    }
+
+    // A new checkpoint starts at dataOffset/dataLine, just past the CSV header.
+    static ImportCheckpoint load(Path file, Path input, long dataOffset, long dataLine) throws IOException {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(file, Files.size(input));
+        if (!Files.exists(file)) {
+            checkpoint.importId = UUID.randomUUID().toString();
+            checkpoint.offset = dataOffset;
+            checkpoint.line = dataLine;
+            // Saved before the first chunk, a resume has to find the same import id.
+            checkpoint.save();
+            return checkpoint;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        if (Long.parseLong(properties.getProperty("input-size")) != checkpoint.inputSize) {
+            throw new IllegalStateException("Checkpoint " + file + " was written for a different version of " + input
+                    + "; delete it to import from the start");
+        }
+        checkpoint.importId = properties.getProperty("import-id", UUID.randomUUID().toString());
+        checkpoint.offset = Long.parseLong(properties.getProperty("offset"));
+        checkpoint.line = Long.parseLong(properties.getProperty("line"));
+        checkpoint.chunk = Long.parseLong(properties.getProperty("chunk"));
+        checkpoint.imported = Long.parseLong(properties.getProperty("imported"));
+        checkpoint.rejected = Long.parseLong(properties.getProperty("rejected"));
+        checkpoint.complete = Boolean.parseBoolean(properties.getProperty("complete"));
+        String ahead = properties.getProperty("finished-ahead", "");
+        if (!ahead.isEmpty()) {
+            for (String entry : ahead.split(",")) {
+                String[] parts = entry.split(":");
+                checkpoint.finishedAhead.put(Long.parseLong(parts[0]), new long[]{Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+            }
+        }
+        return checkpoint;
+    }
+
+    synchronized void finish(long finishedChunk, long endOffset, long endLine, long chunkImported, long chunkRejected) throws IOException {
+        imported += chunkImported;
+        rejected += chunkRejected;
+        finishedAhead.put(finishedChunk, new long[]{endOffset, endLine});
+        while (finishedAhead.containsKey(chunk)) {
+            long[] end = finishedAhead.remove(chunk);
+            offset = end[0];
+            line = end[1];
+            chunk++;
+        }
+        save();
+    }
+
+    synchronized void markComplete() throws IOException {
+        complete = true;
+        save();
+    }
+
+    synchronized boolean isFinished(long candidate) {
+        return candidate < chunk || finishedAhead.containsKey(candidate);
+    }
+
+    synchronized String importId() {
+        return importId;
+    }
+
+    synchronized long offset() {
+        return offset;
+    }
+
+    synchronized long line() {
+        return line;
+    }
+
+    synchronized long chunk() {
+        return chunk;
+    }
+
+    synchronized long imported() {
+        return imported;
+    }
+
+    synchronized long rejected() {
+        return rejected;
+    }
+
+    synchronized boolean complete() {
+        return complete;
+    }
+
+    // Written beside the checkpoint and moved over it, so a crash never leaves a half-written file.
+    private void save() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("import-id", importId);
+        properties.setProperty("input-size", String.valueOf(inputSize));
+        properties.setProperty("offset", String.valueOf(offset));
+        properties.setProperty("line", String.valueOf(line));
+        properties.setProperty("chunk", String.valueOf(chunk));
+        properties.setProperty("imported", String.valueOf(imported));
+        properties.setProperty("rejected", String.valueOf(rejected));
+        properties.setProperty("complete", String.valueOf(complete));
+        StringJoiner ahead = new StringJoiner(",");
+        for (Map.Entry<Long, long[]> entry : finishedAhead.entrySet()) {
+            ahead.add(entry.getKey() + ":" + entry.getValue()[0] + ":" + entry.getValue()[1]);
+        }
+        properties.setProperty("finished-ahead", ahead.toString());
+        Path partial = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            properties.store(out, "order import checkpoint");
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,82 @@
+package com.MFP.OrderService.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Reads UTF-8 lines from a FileChannel through one reusable buffer and keeps the byte offset just past the last line
+// returned, which is what ImportCheckpoint stores. "\n" and "\r\n" both end a line.
+final class LineReader implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private long offset;
+
+    LineReader(Path file, long offset, int bufferSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.channel.position(offset);
+        this.offset = offset;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.flip();
+    }
+
+    // Null at the end of the file; a last line without a line break is still returned.
+    String readLine() throws IOException {
+        lineLength = 0;
+        boolean read = false;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int count = channel.read(buffer);
+                buffer.flip();
+                if (count < 0) {
+                    return read ? decode() : null;
+                }
+            }
+            read = true;
+            byte[] array = buffer.array();
+            int start = buffer.position();
+            int limit = buffer.limit();
+            int end = start;
+            while (end < limit && array[end] != '\n') {
+                end++;
+            }
+            append(array, start, end - start);
+            if (end < limit) {
+                buffer.position(end + 1);
+                offset += end + 1 - start;
+                return decode();
+            }
+            buffer.position(limit);
+            offset += limit - start;
+        }
+    }
+
+    long offset() {
+        return offset;
+    }
+
+    private void append(byte[] bytes, int from, int length) {
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(bytes, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private String decode() {
+        int length = lineLength > 0 && line[lineLength - 1] == '\r' ? lineLength - 1 : lineLength;
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.MFP.OrderService.importer;
+
+import com.MFP.OrderService.OrderServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Command line import: starts the service without the web server or the archiver and imports order.import.file.
+// Rejected rows go to order.import.error-file and progress to order.import.checkpoint-file (default: the input file
+// name plus .errors / .checkpoint). Running the same command again resumes a stopped import.
+//   java -cp order-service.jar -Dloader.main=com.MFP.OrderService.importer.OrderImportJob \
+//        org.springframework.boot.loader.launch.PropertiesLauncher --order.import.file=/data/orders.csv
+public final class OrderImportJob {
+    private OrderImportJob() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("order.archive.enabled=false")
+                .run(args)) {
+            Path file = Path.of(context.getEnvironment().getRequiredProperty("order.import.file"));
+            Path errorFile = Path.of(context.getEnvironment().getProperty("order.import.error-file", file + ".errors"));
+            Path checkpointFile = Path.of(context.getEnvironment().getProperty("order.import.checkpoint-file", file + ".checkpoint"));
+            OrderImportResult result = context.getBean(OrderImporter.class).importFile(file, errorFile, checkpointFile);
+            System.out.printf("Imported %d orders from %s in %d ms, rejected %d (%.0f rows/s)%n",
+                    result.imported(), file.toAbsolutePath(), result.elapsedMillis(), result.rejected(), result.rowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.MFP.OrderService.importer;
+
+import java.util.concurrent.TimeUnit;
+
+// Rows of this run only; a resumed import does not count the rows imported before it stopped.
+public record OrderImportResult(long imported, long rejected, long elapsedNanos) {
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (imported + rejected) * 1e9 / elapsedNanos;
+    }
+}
@@ -0,0 +1,313 @@
+package com.MFP.OrderService.importer;
+
+import com.MFP.OrderService.config.OrderImportProperties;
+import com.MFP.OrderService.dto.BatchCreateOrderResponse;
+import com.MFP.OrderService.dto.BatchOrderResult;
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.enums.BatchItemStatus;
+import com.MFP.OrderService.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Bulk import of orders from a CSV or NDJSON file. One thread reads lines and cuts them into chunks of chunk-size;
+// writer threads parse and validate the rows (the CreateOrderRequest constraints, then OrderValidator inside
+// createOrders) and insert each chunk with OrderService.createOrders, so imported orders get outbox events,
+// aggregates and id filter entries like any other. At most max-pending-chunks chunks are read ahead, after that the
+// reader waits for the writers. Rejected rows go to the error file as "line<TAB>reason<TAB>row", and the checkpoint
+// is saved after every chunk so the same call resumes a stopped import. A chunk that runs again after a stop neither
+// inserts the shards it had committed (batch markers) nor repeats rejects already in the error file.
+@Slf4j
+@Component
+public class OrderImporter {
+    private final OrderService orderService;
+    private final Validator validator;
+    private final ObjectReader requestReader;
+    private final OrderImportProperties properties;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public OrderImporter(OrderService orderService, Validator validator, ObjectMapper objectMapper,
+                         OrderImportProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getChunkSize() < 1 || properties.getChunkSize() > OrderService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("order.import.chunk-size must be between 1 and " + OrderService.MAX_BATCH_SIZE);
+        }
+        this.orderService = orderService;
+        this.validator = validator;
+        this.requestReader = objectMapper.readerFor(CreateOrderRequest.class);
+        this.properties = properties;
+        this.importedRows = meterRegistry.counter("order.import.rows", "outcome", "imported");
+        this.rejectedRows = meterRegistry.counter("order.import.rows", "outcome", "rejected");
+    }
+
+    public OrderImportResult importFile(Path input, Path errorFile, Path checkpointFile) throws IOException {
+        long start = System.nanoTime();
+        OrderRowParser parser;
+        long dataOffset = 0;
+        long dataLine = 0;
+        String name = input.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            try (LineReader header = new LineReader(input, 0, 4096)) {
+                String columns = header.readLine();
+                if (columns == null) {
+                    throw new IllegalArgumentException(input + " has no CSV header");
+                }
+                parser = OrderRowParser.csv(columns);
+                dataOffset = header.offset();
+                dataLine = 1;
+            }
+        } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            parser = OrderRowParser.ndjson(requestReader);
+        } else {
+            throw new IllegalArgumentException("Expected a .csv, .ndjson or .jsonl file but got " + input);
+        }
+
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(checkpointFile, input, dataOffset, dataLine);
+        if (checkpoint.complete()) {
+            log.info("{} was already imported ({} orders, {} rejected), see {}", input, checkpoint.imported(), checkpoint.rejected(), checkpointFile);
+            return new OrderImportResult(0, 0, System.nanoTime() - start);
+        }
+        if (checkpoint.offset() > dataOffset) {
+            log.info("Resuming import of {} after line {}", input, checkpoint.line());
+        }
+
+        LongAdder imported = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Semaphore pending = new Semaphore(properties.getMaxPendingChunks());
+        Set<Long> rejectedBefore = rejectedAfter(errorFile, checkpoint.line());
+        ExecutorService writers = Executors.newFixedThreadPool(properties.getWriterThreads(), writerThreads());
+        try (LineReader reader = new LineReader(input, checkpoint.offset(), properties.getReadBufferSize());
+             BufferedWriter errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            long line = checkpoint.line();
+            long chunk = checkpoint.chunk();
+            long progressNanos = properties.getProgressInterval().toNanos();
+            long nextProgress = System.nanoTime() + progressNanos;
+            boolean end = false;
+            while (!end && failure.get() == null) {
+                // Blank lines count towards the chunk too, so chunk boundaries stay the same when the import resumes.
+                List<String> rows = new ArrayList<>(properties.getChunkSize());
+                while (rows.size() < properties.getChunkSize()) {
+                    String row = reader.readLine();
+                    if (row == null) {
+                        end = true;
+                        break;
+                    }
+                    rows.add(row);
+                }
+                if (rows.isEmpty()) {
+                    break;
+                }
+                long firstLine = line + 1;
+                line += rows.size();
+                Chunk next = new Chunk(chunk++, firstLine, rows, reader.offset(), line);
+                if (checkpoint.isFinished(next.index())) {
+                    continue;
+                }
+                acquire(pending);
+                writers.execute(() -> {
+                    try {
+                        if (failure.get() == null) {
+                            write(parser, next, errors, rejectedBefore, checkpoint, imported, rejected);
+                        }
+                    } catch (Exception ex) {
+                        failure.compareAndSet(null, ex);
+                    } finally {
+                        pending.release();
+                    }
+                });
+                if (System.nanoTime() >= nextProgress) {
+                    nextProgress = System.nanoTime() + progressNanos;
+                    long rowsSoFar = imported.sum() + rejected.sum();
+                    log.info("Import of {}: {} orders imported, {} rejected ({} rows/s)", input, imported.sum(), rejected.sum(),
+                            Math.round(rowsSoFar * 1e9 / (System.nanoTime() - start)));
+                }
+            }
+            writers.shutdown();
+            awaitTermination(writers);
+        } finally {
+            writers.shutdownNow();
+        }
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Import of " + input + " stopped, " + checkpoint.line()
+                    + " lines are done; run it again to resume", failure.get());
+        }
+        // Every chunk is in the checkpoint now, so the markers are no longer needed for a resume.
+        orderService.forgetBatches(checkpoint.importId() + ":");
+        checkpoint.markComplete();
+        OrderImportResult result = new OrderImportResult(imported.sum(), rejected.sum(), System.nanoTime() - start);
+        log.info("Imported {} orders from {} in {} ms, rejected {} ({} rows/s)", result.imported(), input, result.elapsedMillis(),
+                result.rejected(), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    private void write(OrderRowParser parser, Chunk chunk, Writer errors, Set<Long> rejectedBefore, ImportCheckpoint checkpoint,
+                       LongAdder imported, LongAdder rejected) throws IOException {
+        List<CreateOrderRequest> requests = new ArrayList<>(chunk.rows().size());
+        List<Integer> requestRows = new ArrayList<>(chunk.rows().size());
+        StringBuilder rejects = new StringBuilder();
+        int rejectedCount = 0;
+        for (int i = 0; i < chunk.rows().size(); i++) {
+            String row = chunk.rows().get(i);
+            if (row.isBlank()) {
+                continue;
+            }
+            try {
+                CreateOrderRequest request = parser.parse(row);
+                Set<ConstraintViolation<CreateOrderRequest>> violations = validator.validate(request);
+                if (!violations.isEmpty()) {
+                    reject(rejects, rejectedBefore, chunk, i, violations.stream().map(ConstraintViolation::getMessage).sorted()
+                            .collect(Collectors.joining("; ")));
+                    rejectedCount++;
+                    continue;
+                }
+                requests.add(request);
+                requestRows.add(i);
+            } catch (IllegalArgumentException ex) {
+                reject(rejects, rejectedBefore, chunk, i, ex.getMessage());
+                rejectedCount++;
+            }
+        }
+        int created = 0;
+        if (!requests.isEmpty()) {
+            BatchCreateOrderResponse response = orderService.createOrders(requests, checkpoint.importId() + ":" + chunk.index());
+            created = response.getCreated();
+            for (BatchOrderResult result : response.getResults()) {
+                if (result.getStatus() == BatchItemStatus.Rejected) {
+                    reject(rejects, rejectedBefore, chunk, requestRows.get(result.getIndex()), result.getError());
+                    rejectedCount++;
+                }
+            }
+        }
+        // Rejects are on disk before the checkpoint moves past them.
+        if (!rejects.isEmpty()) {
+            synchronized (errors) {
+                errors.append(rejects);
+                errors.flush();
+            }
+        }
+        checkpoint.finish(chunk.index(), chunk.endOffset(), chunk.endLine(), created, rejectedCount);
+        imported.add(created);
+        rejected.add(rejectedCount);
+        importedRows.increment(created);
+        rejectedRows.increment(rejectedCount);
+    }
+
+    private static void reject(StringBuilder rejects, Set<Long> rejectedBefore, Chunk chunk, int row, String reason) {
+        if (rejectedBefore.contains(chunk.firstLine() + row)) {
+            return;
+        }
+        rejects.append(chunk.firstLine() + row).append('\t').append(reason).append('\t').append(chunk.rows().get(row)).append('\n');
+    }
+
+    // Lines past the checkpoint that a stopped run already wrote to the error file. An entry cut off by a crash does
+    // not count, and a newline is added so the next entry starts on a line of its own.
+    private static Set<Long> rejectedAfter(Path errorFile, long line) throws IOException {
+        Set<Long> lines = new HashSet<>();
+        if (!Files.exists(errorFile) || Files.size(errorFile) == 0) {
+            return lines;
+        }
+        boolean terminated;
+        try (SeekableByteChannel channel = Files.newByteChannel(errorFile)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(last);
+            terminated = last.get(0) == '\n';
+        }
+        try (BufferedReader reader = Files.newBufferedReader(errorFile, StandardCharsets.UTF_8)) {
+            String entry;
+            String previous = null;
+            while ((entry = reader.readLine()) != null) {
+                if (previous != null) {
+                    addLineNumber(lines, previous, line);
+                }
+                previous = entry;
+            }
+            if (previous != null && terminated) {
+                addLineNumber(lines, previous, line);
+            }
+        }
+        if (!terminated) {
+            Files.writeString(errorFile, "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+        return lines;
+    }
+
+    private static void addLineNumber(Set<Long> lines, String entry, long after) {
+        int tab = entry.indexOf('\t');
+        if (tab > 0) {
+            try {
+                long number = Long.parseLong(entry.substring(0, tab));
+                if (number > after) {
+                    lines.add(number);
+                }
+            } catch (NumberFormatException ignored) {
+                // Not an entry of ours.
+            }
+        }
+    }
+
+    private static void acquire(Semaphore pending) throws InterruptedIOException {
+        try {
+            pending.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the order import writers");
+        }
+    }
+
+    private static void awaitTermination(ExecutorService writers) throws InterruptedIOException {
+        try {
+            while (!writers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.debug("Waiting for the order import writers to finish");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the order import writers");
+        }
+    }
+
+    private static ThreadFactory writerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "order-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Chunk(long index, long firstLine, List<String> rows, long endOffset, long endLine) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.MFP.OrderService.importer;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Turns one data line into a CreateOrderRequest, or throws IllegalArgumentException with the reason the line is
+// malformed. Validation of the values is left to the caller.
+interface OrderRowParser {
+    CreateOrderRequest parse(String line);
+
+    // Plain comma-separated values without quoting, as written by OrderCsvExporter. The header names the columns;
+    // user_id (or userId) and amount are required, any other column is ignored.
+    static OrderRowParser csv(String header) {
+        List<String> columns = Arrays.stream(header.replace("\uFEFF", "").split(",", -1))
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int userId = columns.indexOf("user_id") >= 0 ? columns.indexOf("user_id") : columns.indexOf("userid");
+        int amount = columns.indexOf("amount");
+        if (userId < 0 || amount < 0) {
+            throw new IllegalArgumentException("CSV header must contain the user_id and amount columns, was: " + header);
+        }
+        int required = Math.max(userId, amount) + 1;
+        return line -> {
+            String[] fields = line.split(",", -1);
+            if (fields.length < required) {
+                throw new IllegalArgumentException("Expected at least " + required + " columns but found " + fields.length);
+            }
+            return CreateOrderRequest.builder()
+                    .userId(parseLong(fields[userId].trim(), "user_id"))
+                    .amount(parseDecimal(fields[amount].trim(), "amount"))
+                    .build();
+        };
+    }
+
+    // One JSON object per line with the fields of POST api/order/v1; unknown fields are ignored.
+    static OrderRowParser ndjson(ObjectReader reader) {
+        return line -> {
+            try {
+                CreateOrderRequest request = reader.readValue(line);
+                if (request == null) {
+                    throw new IllegalArgumentException("Expected a JSON object");
+                }
+                return request;
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+            }
+        };
+    }
+
+    private static Long parseLong(String value, String column) {
+        try {
+            return value.isEmpty() ? null : Long.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    private static BigDecimal parseDecimal(String value, String column) {
+        try {
+            return value.isEmpty() ? null : new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.MFP.OrderService.logging;
+
+import com.MFP.OrderService.config.AccessLogProperties;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// One access-log event per request on the "order.access" logger, which logback-spring.xml writes as JSON through an
+// async appender. Successful requests are sampled; 4xx/5xx, exceptions and slow requests are always logged, at WARN,
+// so the async appender drops sampled INFO events first when its queue fills up.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@EnableConfigurationProperties(AccessLogProperties.class)   // web slices include filters but not the properties scan
+public class AccessLogFilter extends OncePerRequestFilter {
+    static final String LOGGER_NAME = "order.access";
+    private static final Logger accessLog = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final AccessLogProperties properties;
+
+    public AccessLogFilter(AccessLogProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !accessLog.isWarnEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException | Error ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            if (failure == null && request.isAsyncStarted()) {
+                // Async results (CompletableFuture, StreamingResponseBody) only have their final status on completion.
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start));
+            } else {
+                log(request, response, start, failure);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start, Throwable failure) {
+        long durationNanos = System.nanoTime() - start;
+        int status = failure != null && response.getStatus() < 400 ? 500 : response.getStatus();
+        boolean alwaysLogged = status >= 400 || failure != null || durationNanos >= properties.getSlowThreshold().toNanos();
+        if (!alwaysLogged && !sampled()) {
+            return;
+        }
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        LoggingEventBuilder event = accessLog.atLevel(alwaysLogged ? Level.WARN : Level.INFO)
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("route", route == null ? "UNKNOWN" : route)
+                .addKeyValue("status", status)
+                .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1000.0)
+                .addKeyValue("sampleRate", alwaysLogged ? 1.0 : properties.getSuccessSampleRate());
+        if (failure != null) {
+            event = event.addKeyValue("exception", failure.getClass().getSimpleName());
+        }
+        event.log("{} {} {}", request.getMethod(), request.getRequestURI(), status);
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSuccessSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private final class CompletionListener implements AsyncListener {
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, response, start, event.getThrowable());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.config.OutboxProperties;
+import com.MFP.OrderService.dto.OrderEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Appends each batch as NDJSON lines to a local file with a single write. Batches are serialized with a lock rather
+// than a monitor, so a relay on a virtual thread does not pin its carrier during the file I/O.
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "publisher", havingValue = "file")
+public class FileOrderEventPublisher implements OrderEventPublisher {
+    private final Path file;
+    private final ObjectWriter eventWriter;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public FileOrderEventPublisher(OutboxProperties properties, ObjectMapper objectMapper) {
+        this.file = properties.getFile();
+        this.eventWriter = objectMapper.writerFor(OrderEvent.class);
+    }
+
+    @Override
+    public void publish(List<OrderEvent> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 160);
+            for (OrderEvent event : events) {
+                lines.write(eventWriter.writeValueAsBytes(event));
+                lines.write('\n');
+            }
+            writeLock.lock();
+            try {
+                Path parent = file.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    lines.writeTo(out);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.config.OutboxProperties;
+import com.MFP.OrderService.dto.OrderEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the most recent events in memory; meant for tests and local runs without a broker.
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "publisher", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOrderEventPublisher implements OrderEventPublisher {
+    private final Deque<OrderEvent> events = new ArrayDeque<>();
+    private final int capacity;
+
+    public InMemoryOrderEventPublisher(OutboxProperties properties) {
+        this.capacity = properties.getMemoryCapacity();
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> batch) {
+        for (OrderEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    public synchronized List<OrderEvent> events() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
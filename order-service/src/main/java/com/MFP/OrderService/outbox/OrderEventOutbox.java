@@ -0,0 +1,55 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.entity.OutboxEventEntity;
+import com.MFP.OrderService.enums.OrderEventType;
+import com.MFP.OrderService.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Writes order change events into the outbox table. MANDATORY: an event must commit or roll back with its order change.
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderEventOutbox {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectWriter orderWriter;
+
+    public OrderEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderWriter = objectMapper.writerFor(OrderResponse.class);
+    }
+
+    public void record(OrderEventType eventType, Long orderId, OrderResponse order) {
+        outboxEventRepository.save(toEntity(eventType, orderId, order, Instant.now()));
+    }
+
+    public void recordAll(OrderEventType eventType, List<OrderResponse> orders) {
+        Instant now = Instant.now();
+        List<OutboxEventEntity> events = new ArrayList<>(orders.size());
+        for (OrderResponse order : orders) {
+            events.add(toEntity(eventType, order.getId(), order, now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEventEntity toEntity(OrderEventType eventType, Long orderId, OrderResponse order, Instant createdAt) {
+        try {
+            return OutboxEventEntity.builder()
+                    .orderId(orderId)
+                    .eventType(eventType)
+                    .payload(order == null ? null : orderWriter.writeValueAsString(order))
+                    .createdAt(createdAt)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order event for orderId=" + orderId + " could not be serialized", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.dto.OrderEvent;
+
+import java.util.List;
+
+// Delivers a batch of outbox events, in outbox order. Throwing leaves the batch in the outbox for the next attempt,
+// so delivery is at-least-once and consumers should deduplicate on eventId.
+public interface OrderEventPublisher {
+    void publish(List<OrderEvent> events);
+}
@@ -0,0 +1,95 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.config.OutboxProperties;
+import com.MFP.OrderService.dto.OrderEvent;
+import com.MFP.OrderService.entity.OutboxEventEntity;
+import com.MFP.OrderService.repository.OutboxEventRepository;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Drains the outbox in id order: lock a batch, publish it, delete it, all in one transaction. A failed publish rolls
+// back and the same batch is retried on the next tick. Every shard has its own outbox table and is drained in turn.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "relay-enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OrderEventPublisher orderEventPublisher;
+    private final TransactionOperations transactionOperations;
+    private final OrderShards orderShards;
+    private final int batchSize;
+    private final Counter publishedEvents;
+    private final Counter failedBatches;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OrderEventPublisher orderEventPublisher,
+                       TransactionOperations transactionOperations,
+                       OrderShards orderShards,
+                       OutboxProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.orderEventPublisher = orderEventPublisher;
+        this.transactionOperations = transactionOperations;
+        this.orderShards = orderShards;
+        this.batchSize = properties.getBatchSize();
+        this.publishedEvents = meterRegistry.counter("order.outbox.published");
+        this.failedBatches = meterRegistry.counter("order.outbox.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval:500ms}")
+    public void drain() {
+        for (int shard = 0; shard < orderShards.count(); shard++) {
+            try {
+                orderShards.run(shard, () -> {
+                    int relayed;
+                    do {
+                        relayed = relayBatch();
+                    } while (relayed == batchSize);
+                });
+            } catch (RuntimeException ex) {
+                failedBatches.increment();
+                log.warn("Publishing order events of shard {} failed, will retry: {}", shard, ex.getMessage());
+            }
+        }
+    }
+
+    public int relayBatch() {
+        Integer relayed = transactionOperations.execute(status -> {
+            List<OutboxEventEntity> rows = outboxEventRepository.lockNextBatch(Limit.of(batchSize));
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            List<OrderEvent> events = new ArrayList<>(rows.size());
+            List<Long> ids = new ArrayList<>(rows.size());
+            for (OutboxEventEntity row : rows) {
+                events.add(OrderEvent.builder()
+                        .eventId(row.getId())
+                        .type(row.getEventType())
+                        .orderId(row.getOrderId())
+                        .occurredAt(row.getCreatedAt())
+                        .order(row.getPayload())
+                        .build());
+                ids.add(row.getId());
+            }
+            orderEventPublisher.publish(events);
+            outboxEventRepository.deleteByIdIn(ids);
+            return rows.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        if (count > 0) {
+            publishedEvents.increment(count);
+            log.debug("Published {} order events", count);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,6 @@
+package com.MFP.OrderService.repository;
+
+import java.time.Instant;
+
+public record ArchivableOrder(Long id, Instant updatedAt) {
+}
@@ -0,0 +1,37 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.entity.ArchivedOrderEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrderEntity, Long> {
+    // Copies the rows server-side, the archiver never loads the orders it moves.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("insert into ArchivedOrderEntity (id, userId, amount, status, version, updatedAt, archivedAt) "
+            + "select o.id, o.userId, o.amount, o.status, o.version, o.updatedAt, :archivedAt from OrderEntity o where o.id in :ids")
+    int copyFromOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    @Query("select a.id from ArchivedOrderEntity a where a.id > :after order by a.id")
+    List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+    @Query("select new com.MFP.OrderService.repository.OrderTotalsRow(a.userId, a.status, count(a), sum(a.amount)) "
+            + "from ArchivedOrderEntity a group by a.userId, a.status")
+    List<OrderTotalsRow> sumByUserAndStatus();
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ArchivedOrderEntity a where a.id = :id")
+    int deleteArchivedById(@Param("id") Long id);
+}
@@ -0,0 +1,18 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.entity.OrderBatchMarkerEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface OrderBatchMarkerRepository extends JpaRepository<OrderBatchMarkerEntity, String> {
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderBatchMarkerEntity m where m.batchKey like concat(:prefix, '%')")
+    int deleteByKeyPrefix(@Param("prefix") String prefix);
+}
@@ -1,9 +1,109 @@
 package com.MFP.OrderService.repository;
 
 import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Declared queries get no transaction from SimpleJpaRepository; read-only makes them eligible for the read replicas
+// (see ReadReplicaConfig). Writes declare @Transactional and the locking reads join the caller's write transaction.
 @Repository
-public interface OrderRepository extends JpaRepository<OrderEntity, Long> {
+@Transactional(readOnly = true)
+public interface OrderRepository extends JpaRepository<OrderEntity, Long>, OrderStreamRepository {
+    List<OrderEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Slices fetch one extra row instead of running a count query; each method walks one index range.
+    Slice<OrderEntity> findByUserIdOrderByIdAsc(Long userId, Pageable pageable);
+
+    Slice<OrderEntity> findByUserIdAndAmountBetweenOrderByAmountAscIdAsc(Long userId, BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
+
+    Slice<OrderEntity> findByStatusOrderByIdAsc(OrderStatus status, Pageable pageable);
+
+    Slice<OrderEntity> findByStatusAndAmountBetweenOrderByAmountAscIdAsc(OrderStatus status, BigDecimal minAmount, BigDecimal maxAmount, Pageable pageable);
+
+    @Query("select o.id from OrderEntity o where o.id > :after order by o.id")
+    List<Long> findIdsAfter(@Param("after") long after, Limit limit);
+
+    // Plain read of the columns the aggregates need; the guarded update/delete then only applies at that version.
+    @Query("select new com.MFP.OrderService.repository.OrderSnapshot(o.id, o.userId, o.amount, o.status, o.version) "
+            + "from OrderEntity o where o.id = :id")
+    Optional<OrderSnapshot> findSnapshot(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.MFP.OrderService.repository.OrderSnapshot(o.id, o.userId, o.amount, o.status, o.version) "
+            + "from OrderEntity o where o.id in :ids")
+    List<OrderSnapshot> findSnapshotsForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Keyset chunks for bulk transitions; kept as two queries so each one is a plain range on (status, id) or (user_id, id).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.MFP.OrderService.repository.OrderSnapshot(o.id, o.userId, o.amount, o.status, o.version) "
+            + "from OrderEntity o where o.status = :status and o.id > :after order by o.id")
+    List<OrderSnapshot> findSnapshotsForUpdate(@Param("status") OrderStatus status, @Param("after") Long after, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.MFP.OrderService.repository.OrderSnapshot(o.id, o.userId, o.amount, o.status, o.version) "
+            + "from OrderEntity o where o.userId = :userId and o.status = :status and o.id > :after order by o.id")
+    List<OrderSnapshot> findSnapshotsForUpdate(@Param("status") OrderStatus status, @Param("userId") Long userId,
+                                               @Param("after") Long after, Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderEntity o set o.status = :status, o.version = o.version + 1, o.updatedAt = instant "
+            + "where o.id in :ids and o.status <> com.MFP.OrderService.enums.OrderStatus.Cancelled")
+    int updateStatusIfNotCancelled(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    @Query("select new com.MFP.OrderService.repository.OrderTotalsRow(o.userId, o.status, count(o), sum(o.amount)) "
+            + "from OrderEntity o group by o.userId, o.status")
+    List<OrderTotalsRow> sumByUserAndStatus();
+
+    // Applies only while the order is still at version and not cancelled, so the caller knows the previous values.
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update OrderEntity o set o.userId = coalesce(:userId, o.userId), o.amount = coalesce(:amount, o.amount), "
+            + "o.status = coalesce(:status, o.status), o.version = o.version + 1, o.updatedAt = instant "
+            + "where o.id = :id and o.version = :version and o.status <> com.MFP.OrderService.enums.OrderStatus.Cancelled")
+    int updateIfNotCancelled(@Param("id") Long id, @Param("version") Long version, @Param("userId") Long userId,
+                             @Param("amount") BigDecimal amount, @Param("status") OrderStatus status);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.id = :id and o.version = :version")
+    int deleteOrderById(@Param("id") Long id, @Param("version") Long version);
+
+    // Keyset batches for OrderArchiver, one status at a time in (updated_at, id) order: that is the order of
+    // idx_orders_status_updated, to which InnoDB appends the primary key, so the locked range needs no filesort.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.MFP.OrderService.repository.ArchivableOrder(o.id, o.updatedAt) from OrderEntity o "
+            + "where o.status = :status and o.updatedAt < :before order by o.updatedAt, o.id")
+    List<ArchivableOrder> findArchivableForUpdate(@Param("status") OrderStatus status, @Param("before") Instant before,
+                                                  Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.MFP.OrderService.repository.ArchivableOrder(o.id, o.updatedAt) from OrderEntity o "
+            + "where o.status = :status and o.updatedAt < :before "
+            + "and (o.updatedAt > :afterUpdatedAt or (o.updatedAt = :afterUpdatedAt and o.id > :afterId)) "
+            + "order by o.updatedAt, o.id")
+    List<ArchivableOrder> findArchivableForUpdate(@Param("status") OrderStatus status, @Param("before") Instant before,
+                                                  @Param("afterUpdatedAt") Instant afterUpdatedAt,
+                                                  @Param("afterId") Long afterId, Limit limit);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from OrderEntity o where o.id in :ids")
+    int deleteOrdersByIdIn(@Param("ids") Collection<Long> ids);
 }
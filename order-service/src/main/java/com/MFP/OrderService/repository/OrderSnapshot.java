@@ -0,0 +1,8 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+public record OrderSnapshot(Long id, Long userId, BigDecimal amount, OrderStatus status, Long version) {
+}
@@ -0,0 +1,11 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.entity.OrderEntity;
+
+import java.util.function.Consumer;
+
+public interface OrderStreamRepository {
+    void forEachOrder(Consumer<OrderEntity> consumer);
+
+    void forEachOrderSnapshotIncludingArchived(Consumer<OrderSnapshot> consumer);
+}
@@ -0,0 +1,55 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.entity.OrderEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class OrderStreamRepositoryImpl implements OrderStreamRepository {
+    static final int FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Forward-only cursor; every row is detached once consumed so the persistence context stays empty.
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachOrder(Consumer<OrderEntity> consumer) {
+        try (Stream<OrderEntity> orders = entityManager
+                .createQuery("select o from OrderEntity o order by o.id", OrderEntity.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    // Same cursor over a projection: rows never become entities, so there is nothing to detach or dirty-check.
+    // Hot orders first, then archived ones, both read from one REPEATABLE READ snapshot: an order the archiver
+    // moves between the two cursors shows up in exactly one of them.
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void forEachOrderSnapshotIncludingArchived(Consumer<OrderSnapshot> consumer) {
+        forEachSnapshot("select new com.MFP.OrderService.repository.OrderSnapshot(o.id, o.userId, o.amount, o.status, o.version) "
+                + "from OrderEntity o order by o.id", consumer);
+        forEachSnapshot("select new com.MFP.OrderService.repository.OrderSnapshot(a.id, a.userId, a.amount, a.status, a.version) "
+                + "from ArchivedOrderEntity a order by a.id", consumer);
+    }
+
+    private void forEachSnapshot(String query, Consumer<OrderSnapshot> consumer) {
+        try (Stream<OrderSnapshot> snapshots = entityManager
+                .createQuery(query, OrderSnapshot.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, FETCH_SIZE)
+                .getResultStream()) {
+            snapshots.forEach(consumer);
+        }
+    }
+}
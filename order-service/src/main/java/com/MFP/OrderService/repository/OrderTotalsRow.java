@@ -0,0 +1,8 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.enums.OrderStatus;
+
+import java.math.BigDecimal;
+
+public record OrderTotalsRow(Long userId, OrderStatus status, Long orderCount, BigDecimal amount) {
+}
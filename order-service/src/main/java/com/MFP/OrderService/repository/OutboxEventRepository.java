@@ -0,0 +1,28 @@
+package com.MFP.OrderService.repository;
+
+import com.MFP.OrderService.entity.OutboxEventEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+    // FOR UPDATE SKIP LOCKED (lock timeout -2), so several relay instances drain disjoint batches.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from OutboxEventEntity e order by e.id")
+    List<OutboxEventEntity> lockNextBatch(Limit limit);
+
+    @Modifying
+    @Query("delete from OutboxEventEntity e where e.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,193 @@
+package com.MFP.OrderService.service;
+
+import com.MFP.OrderService.config.GroupCommitProperties;
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.exception.OrderQueueFullException;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind creation: requests wait in a bounded queue and a few writer threads commit them in groups of up to
+// maxBatchSize orders per transaction, waiting at most maxBatchDelay after the first order of a group. Each future
+// completes once its group has committed. A full queue is reported to the caller instead of growing without bound.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "order.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitOrderWriter implements SmartLifecycle {
+    private final OrderService orderService;
+    private final OrderShards orderShards;
+    private final BlockingQueue<PendingOrder> queue;
+    private final int writerThreads;
+    private final int maxBatchSize;
+    private final long maxBatchDelayNanos;
+    private final long offerTimeoutNanos;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running;
+
+    public GroupCommitOrderWriter(OrderService orderService, OrderShards orderShards, GroupCommitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.orderShards = orderShards;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.writerThreads = properties.getWriterThreads();
+        this.maxBatchSize = properties.getMaxBatchSize();
+        this.maxBatchDelayNanos = properties.getMaxBatchDelay().toNanos();
+        this.offerTimeoutNanos = properties.getOfferTimeout().toNanos();
+        this.batchSizes = DistributionSummary.builder("order.group_commit.batch.size").register(meterRegistry);
+        this.rejected = meterRegistry.counter("order.group_commit.rejected");
+        Gauge.builder("order.group_commit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    public CompletableFuture<OrderResponse> submit(CreateOrderRequest createOrderRequest) {
+        OrderValidator.validateCreateRequest(createOrderRequest);
+        if (!running) {
+            throw new OrderQueueFullException("Order writer is not accepting orders, retry later");
+        }
+        PendingOrder pending = new PendingOrder(createOrderRequest, new CompletableFuture<>());
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, offerTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            throw new OrderQueueFullException("Order queue is full, retry later");
+        }
+        return pending.result();
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < writerThreads; i++) {
+            Thread writer = new Thread(this::drain, "order-writer-" + i);
+            writer.start();
+            writers.add(writer);
+        }
+        log.info("Group commit writer started with {} threads, batches of up to {} orders", writerThreads, maxBatchSize);
+    }
+
+    // Stops accepting orders; the writers commit whatever is still queued before they exit.
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread writer : writers) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        List<PendingOrder> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            PendingOrder first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                if (!running) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            fill(batch, System.nanoTime() + maxBatchDelayNanos);
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void fill(List<PendingOrder> batch, long deadline) {
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            try {
+                PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // A transaction cannot span shards, so a batch is committed as one group per shard.
+    private void commit(List<PendingOrder> batch) {
+        batchSizes.record(batch.size());
+        Map<Integer, List<PendingOrder>> byShard = new TreeMap<>();
+        for (PendingOrder pending : batch) {
+            byShard.computeIfAbsent(orderShards.forUser(pending.request().getUserId()), shard -> new ArrayList<>()).add(pending);
+        }
+        byShard.values().forEach(this::commitGroup);
+    }
+
+    // If the group transaction fails, each order is retried on its own so one bad row does not fail its neighbours.
+    private void commitGroup(List<PendingOrder> batch) {
+        List<CreateOrderRequest> requests = new ArrayList<>(batch.size());
+        for (PendingOrder pending : batch) {
+            requests.add(pending.request());
+        }
+        List<OrderResponse> created;
+        try {
+            created = orderService.createValidatedOrders(requests);
+        } catch (RuntimeException ex) {
+            log.warn("Group commit of {} orders failed, retrying them one by one: {}", batch.size(), ex.getMessage());
+            for (PendingOrder pending : batch) {
+                try {
+                    pending.result().complete(orderService.createOrder(pending.request()));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(created.get(i));
+        }
+    }
+
+    private record PendingOrder(CreateOrderRequest request, CompletableFuture<OrderResponse> result) {
+    }
+}
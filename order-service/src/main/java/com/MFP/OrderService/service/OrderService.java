@@ -1,102 +1,682 @@
 package com.MFP.OrderService.service;
 
+import com.MFP.OrderService.aggregate.OrderAggregates;
+import com.MFP.OrderService.cache.IdempotencyStore;
+import com.MFP.OrderService.cache.OrderCache;
+import com.MFP.OrderService.cache.OrderIdFilter;
+import com.MFP.OrderService.datasource.PrimaryReads;
+import com.MFP.OrderService.datasource.RecentWrites;
+import com.MFP.OrderService.dto.BatchCreateOrderResponse;
+import com.MFP.OrderService.dto.BatchOrderResult;
+import com.MFP.OrderService.dto.BulkStatusUpdateRequest;
+import com.MFP.OrderService.dto.BulkStatusUpdateResponse;
 import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderCacheStatsResponse;
+import com.MFP.OrderService.dto.OrderPageResponse;
 import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.OrderSliceResponse;
+import com.MFP.OrderService.dto.OrderStatusAggregatesResponse;
+import com.MFP.OrderService.dto.StatusUpdateResult;
 import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.dto.UserOrderAggregateResponse;
+import com.MFP.OrderService.entity.OrderBatchMarkerEntity;
 import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.BatchItemStatus;
+import com.MFP.OrderService.enums.OrderEventType;
 import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.enums.StatusUpdateOutcome;
 import com.MFP.OrderService.exception.InvalidOrderException;
 import com.MFP.OrderService.exception.OrderAlreadyExistsException;
 import com.MFP.OrderService.exception.OrderNotFoundException;
+import com.MFP.OrderService.exception.OrderVersionMismatchException;
 import com.MFP.OrderService.mapper.OrderMapper;
+import com.MFP.OrderService.outbox.OrderEventOutbox;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderBatchMarkerRepository;
 import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.repository.OrderSnapshot;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.validation.annotation.Validated;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @Validated
 @RequiredArgsConstructor
+@Timed(value = "order.service", histogram = true)
 public class OrderService {
+    static final int MAX_PAGE_SIZE = 1000;
+    // Bound on page * size for the slice endpoints; every shard reads that many rows, deeper reads use the keyset page.
+    static final int MAX_PAGE_OFFSET = 10_000;
+    public static final int MAX_BATCH_SIZE = 1000;
+    static final int MAX_BULK_IDS = 100_000;
+    static final int BULK_CHUNK_SIZE = 1000;
+    // Guarded single-order writes that find the order at another version are retried this often before giving up.
+    static final int MAX_WRITE_ATTEMPTS = 3;
+    // Bounds of the orders.amount column, used when only one side of an amount range is given.
+    static final BigDecimal MIN_AMOUNT = BigDecimal.ZERO;
+    static final BigDecimal MAX_AMOUNT = OrderValidator.MAX_AMOUNT;
+    private static final Comparator<OrderEntity> BY_ID = Comparator.comparing(OrderEntity::getId);
+    private static final Comparator<OrderEntity> BY_AMOUNT_AND_ID = Comparator.comparing(OrderEntity::getAmount).thenComparing(OrderEntity::getId);
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final OrderCache orderCache;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderEventOutbox orderEventOutbox;
+    private final TransactionOperations transactionOperations;
+    private final OrderAggregates orderAggregates;
+    private final OrderIdFilter orderIdFilter;
+    private final RecentWrites recentWrites;
+    private final OrderShards orderShards;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderBatchMarkerRepository orderBatchMarkerRepository;
 
 
     public OrderResponse createOrder(CreateOrderRequest createOrderRequest){
-        if(createOrderRequest.getUserId() == null){
-            throw new InvalidOrderException("User id must not be null");
+        OrderValidator.validateCreateRequest(createOrderRequest);
+        log.debug("Create order request was received for user id={}, and amount={} ",createOrderRequest.getUserId(), createOrderRequest.getAmount());
+        // The order and its outbox event commit together; the cache is only filled once that commit succeeded.
+        OrderResponse orderResponse = orderShards.on(orderShards.forUser(createOrderRequest.getUserId()), () -> transactionOperations.execute(status -> {
+            OrderEntity orderEntity = orderMapper.toEntity(createOrderRequest);
+            orderEntity.setStatus(OrderStatus.Created);
+            OrderEntity savedOrder = orderRepository.save(orderEntity);
+            log.debug("Order Cerated successfully with userId={}, and amount={}",savedOrder.getUserId(), savedOrder.getAmount());
+            OrderResponse createdOrder = orderMapper.toResponse(savedOrder);
+            orderEventOutbox.record(OrderEventType.OrderCreated, createdOrder.getId(), createdOrder);
+            afterCommit(() -> onCreated(createdOrder));
+            return createdOrder;
+        }));
+        orderCache.put(orderResponse);
+        return orderResponse;
+
+
+    }
+
+    // Commits already validated orders in one transaction for GroupCommitOrderWriter; results keep the request order.
+    // The orders must belong to one shard, the writer groups them accordingly.
+    List<OrderResponse> createValidatedOrders(List<CreateOrderRequest> createOrderRequests){
+        Map<Integer, List<Integer>> byShard = groupByShard(createOrderRequests, CreateOrderRequest::getUserId);
+        if(byShard.size() != 1){
+            throw new IllegalArgumentException("Group commit orders span " + byShard.size() + " shards");
+        }
+        List<OrderResponse> createdOrders = orderShards.on(byShard.keySet().iterator().next(), () -> transactionOperations.execute(status -> {
+            List<OrderEntity> entities = new ArrayList<>(createOrderRequests.size());
+            for (CreateOrderRequest createOrderRequest : createOrderRequests) {
+                OrderEntity orderEntity = orderMapper.toEntity(createOrderRequest);
+                orderEntity.setStatus(OrderStatus.Created);
+                entities.add(orderEntity);
+            }
+            List<OrderResponse> saved = orderRepository.saveAll(entities).stream().map(orderMapper::toResponse).collect(Collectors.toList());
+            orderEventOutbox.recordAll(OrderEventType.OrderCreated, saved);
+            afterCommit(() -> saved.forEach(this::onCreated));
+            return saved;
+        }));
+        log.debug("Group committed {} orders", createdOrders.size());
+        createdOrders.forEach(orderCache::put);
+        return createdOrders;
+    }
+
+    public OrderResponse createOrder(CreateOrderRequest createOrderRequest, String idempotencyKey){
+        if(idempotencyKey == null){
+            return createOrder(createOrderRequest);
+        }
+        return idempotencyStore.execute(idempotencyKey, fingerprint(createOrderRequest), () -> createOrder(createOrderRequest));
+    }
+
+    // One transaction per shard: the valid orders of a shard commit or fail together.
+    public BatchCreateOrderResponse createOrders(List<CreateOrderRequest> createOrderRequests){
+        return createOrders(createOrderRequests, null);
+    }
+
+    // A batch that may be repeated after a failure. Each shard's orders commit together with a marker for batchKey on
+    // that shard; a shard that already has the marker is skipped and its orders reported as Created without a body.
+    public BatchCreateOrderResponse createOrders(List<CreateOrderRequest> createOrderRequests, String batchKey){
+        if(createOrderRequests == null || createOrderRequests.isEmpty() || createOrderRequests.size() > MAX_BATCH_SIZE){
+            throw new InvalidOrderException("Batch must contain between 1 and " + MAX_BATCH_SIZE + " orders");
         }
-        if(createOrderRequest.getAmount()==null || createOrderRequest.getAmount().compareTo(BigDecimal.ZERO)<=0){
-            throw new InvalidOrderException("Amount must be greater than zero");
+        log.info("Batch create request was received for {} orders", createOrderRequests.size());
+        BatchOrderResult[] results = new BatchOrderResult[createOrderRequests.size()];
+        List<OrderEntity> entities = new ArrayList<>(createOrderRequests.size());
+        List<Integer> positions = new ArrayList<>(createOrderRequests.size());
+        for (int i = 0; i < createOrderRequests.size(); i++) {
+            CreateOrderRequest createOrderRequest = createOrderRequests.get(i);
+            try {
+                OrderValidator.validateCreateRequest(createOrderRequest);
+            } catch (InvalidOrderException ex) {
+                results[i] = BatchOrderResult.builder().index(i).status(BatchItemStatus.Rejected).error(ex.getMessage()).build();
+                continue;
+            }
+            OrderEntity orderEntity = orderMapper.toEntity(createOrderRequest);
+            orderEntity.setStatus(OrderStatus.Created);
+            entities.add(orderEntity);
+            positions.add(i);
         }
-        log.info("Create order request was received for user id={}, and amount={} ",createOrderRequest.getUserId(), createOrderRequest.getAmount());
-        OrderEntity orderEntity = orderMapper.toEntity(createOrderRequest);
-        orderEntity.setStatus(OrderStatus.Created);
-        OrderEntity savedOrder = orderRepository.save(orderEntity);
-        log.info("Order Cerated successfully with userId={}, and amount={}",savedOrder.getUserId(), savedOrder.getAmount());
-        return orderMapper.toResponse(savedOrder);
 
+        int[] created = new int[1];
+        groupByShard(entities, OrderEntity::getUserId).forEach((shard, members) -> orderShards.run(shard, () ->
+                transactionOperations.executeWithoutResult(status -> {
+                    if(batchKey != null && orderBatchMarkerRepository.existsById(batchKey)){
+                        log.info("Batch {} was already created on shard {}, skipping {} orders", batchKey, shard, members.size());
+                        for (int member : members) {
+                            int index = positions.get(member);
+                            results[index] = BatchOrderResult.builder().index(index).status(BatchItemStatus.Created).build();
+                        }
+                        created[0] += members.size();
+                        return;
+                    }
+                    List<OrderEntity> shardEntities = new ArrayList<>(members.size());
+                    for (int member : members) {
+                        shardEntities.add(entities.get(member));
+                    }
+                    List<OrderEntity> savedOrders = orderRepository.saveAll(shardEntities);
+                    List<OrderResponse> createdOrders = new ArrayList<>(savedOrders.size());
+                    for (int i = 0; i < savedOrders.size(); i++) {
+                        int index = positions.get(members.get(i));
+                        OrderResponse createdOrder = orderMapper.toResponse(savedOrders.get(i));
+                        createdOrders.add(createdOrder);
+                        results[index] = BatchOrderResult.builder().index(index).status(BatchItemStatus.Created).order(createdOrder).build();
+                    }
+                    orderEventOutbox.recordAll(OrderEventType.OrderCreated, createdOrders);
+                    if(batchKey != null){
+                        orderBatchMarkerRepository.save(OrderBatchMarkerEntity.builder()
+                                .batchKey(batchKey).orders(savedOrders.size()).createdAt(Instant.now()).build());
+                    }
+                    afterCommit(() -> createdOrders.forEach(this::onCreated));
+                    created[0] += savedOrders.size();
+                })));
+        int rejected = createOrderRequests.size() - created[0];
+        log.info("Batch created {} orders, rejected {}", created[0], rejected);
+        return BatchCreateOrderResponse.builder()
+                .created(created[0])
+                .rejected(rejected)
+                .results(Arrays.asList(results))
+                .build();
+    }
 
+    // Drops the markers of finished keyed batches on every shard.
+    public void forgetBatches(String batchKeyPrefix){
+        int deleted = orderShards.onEach(() -> orderBatchMarkerRepository.deleteByKeyPrefix(batchKeyPrefix)).stream()
+                .mapToInt(Integer::intValue).sum();
+        log.debug("Deleted {} batch markers starting with {}", deleted, batchKeyPrefix);
     }
 
     public OrderResponse findById(Long id){
-        log.debug("Fetching Order with id={}", id);
-        OrderEntity orderEntity = orderRepository.findById(id).orElseThrow(() -> {
+        if(!orderIdFilter.mightContain(id)){
+            throw new OrderNotFoundException("Order with id=" + id + " not found");
+        }
+        OrderResponse orderResponse = orderCache.get(id, key -> orderShards.on(orderShards.forOrder(key), () -> loadById(key)));
+        if(orderResponse == null){
             log.warn("Order with id={} not found", id);
-            return new OrderNotFoundException("Order with id=" + id + " not found");
-        });
-        return orderMapper.toResponse(orderEntity);
+            throw new OrderNotFoundException("Order with id=" + id + " not found");
+        }
+        return orderResponse;
+    }
 
+    public OrderCacheStatsResponse cacheStats(){
+        return orderCache.stats();
+    }
+
+    // Orders this instance wrote a moment ago are read from the primary, a replica may not have them yet.
+    // A miss in the hot table falls back to the archive (see OrderArchiver); archived orders never change again.
+    private OrderResponse loadById(Long id){
+        log.debug("Fetching Order with id={}", id);
+        OrderResponse orderResponse = recentWrites.contains(id)
+                ? PrimaryReads.call(() -> orderRepository.findById(id)).map(orderMapper::toResponse).orElse(null)
+                : orderRepository.findById(id).map(orderMapper::toResponse).orElse(null);
+        if(orderResponse != null){
+            return orderResponse;
+        }
+        return archivedOrderRepository.findById(id).map(orderMapper::toResponse).orElse(null);
     }
 
     public List<OrderResponse> findAll(){
         log.debug("Fetching all Orders");
-        List<OrderEntity> orders = orderRepository.findAll();
-        log.info("Fetched {} Orders successfully", orders.size());
+        List<OrderEntity> orders = merge(orderShards.onEach(orderRepository::findAll), BY_ID, Integer.MAX_VALUE);
+        log.debug("Fetched {} Orders successfully", orders.size());
         return orders.stream().map(orderMapper::toResponse).collect(Collectors.toList());
     }
 
+    public OrderPageResponse findPage(Long after, int size){
+        if(size < 1 || size > MAX_PAGE_SIZE){
+            throw new InvalidOrderException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long cursor = after == null ? 0L : after;
+        log.debug("Fetching {} Orders after id={}", size, cursor);
+        List<OrderEntity> orders = merge(orderShards.onEach(() -> orderRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(size + 1))),
+                BY_ID, size + 1);
+        boolean hasNext = orders.size() > size;
+        List<OrderResponse> page = orders.stream().limit(size).map(orderMapper::toResponse).collect(Collectors.toList());
+        Long next = hasNext ? orders.get(size - 1).getId() : null;
+        return OrderPageResponse.builder().orders(page).next(next).build();
+    }
+
+    // Without an amount range the slice is ordered by id; with one it is ordered by amount, then id, so the query stays
+    // inside the (userId, amount) index range.
+    public OrderSliceResponse findByUser(Long userId, BigDecimal minAmount, BigDecimal maxAmount, int page, int size){
+        Pageable pageable = pageRequest(minAmount, maxAmount, page, size);
+        log.debug("Fetching Orders for userId={} page={} size={}", userId, page, size);
+        Slice<OrderEntity> orders = orderShards.on(orderShards.forUser(userId), () -> minAmount == null && maxAmount == null
+                ? orderRepository.findByUserIdOrderByIdAsc(userId, pageable)
+                : orderRepository.findByUserIdAndAmountBetweenOrderByAmountAscIdAsc(userId, lower(minAmount), upper(maxAmount), pageable));
+        return toSliceResponse(orders);
+    }
+
+    public OrderSliceResponse findByStatus(OrderStatus status, BigDecimal minAmount, BigDecimal maxAmount, int page, int size){
+        Pageable pageable = pageRequest(minAmount, maxAmount, page, size);
+        log.debug("Fetching Orders with status={} page={} size={}", status, page, size);
+        if(orderShards.count() > 1){
+            return findByStatusOnAllShards(status, minAmount, maxAmount, page, size);
+        }
+        Slice<OrderEntity> orders = minAmount == null && maxAmount == null
+                ? orderRepository.findByStatusOrderByIdAsc(status, pageable)
+                : orderRepository.findByStatusAndAmountBetweenOrderByAmountAscIdAsc(status, lower(minAmount), upper(maxAmount), pageable);
+        return toSliceResponse(orders);
+    }
+
+    // Every shard returns its first (page + 1) * size + 1 rows in slice order, the merge skips the earlier pages. Deep
+    // pages cost more than on one database, hence MAX_PAGE_OFFSET; the keyset page endpoint does not have that problem.
+    private OrderSliceResponse findByStatusOnAllShards(OrderStatus status, BigDecimal minAmount, BigDecimal maxAmount, int page, int size){
+        int end = (page + 1) * size;
+        Pageable head = PageRequest.of(0, end + 1);
+        boolean byId = minAmount == null && maxAmount == null;
+        List<OrderEntity> orders = merge(orderShards.onEach(() -> (byId
+                        ? orderRepository.findByStatusOrderByIdAsc(status, head)
+                        : orderRepository.findByStatusAndAmountBetweenOrderByAmountAscIdAsc(status, lower(minAmount), upper(maxAmount), head)).getContent()),
+                byId ? BY_ID : BY_AMOUNT_AND_ID, end + 1);
+        return OrderSliceResponse.builder()
+                .orders(orders.subList(Math.min(page * size, orders.size()), Math.min(end, orders.size())).stream()
+                        .map(orderMapper::toResponse).collect(Collectors.toList()))
+                .page(page)
+                .size(size)
+                .hasNext(orders.size() > end)
+                .build();
+    }
+
+    private static Pageable pageRequest(BigDecimal minAmount, BigDecimal maxAmount, int page, int size){
+        if(size < 1 || size > MAX_PAGE_SIZE){
+            throw new InvalidOrderException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if(page < 0){
+            throw new InvalidOrderException("Page must not be negative");
+        }
+        if((long) page * size > MAX_PAGE_OFFSET){
+            throw new InvalidOrderException("Page * size must be at most " + MAX_PAGE_OFFSET + ", use the keyset page for deeper reads");
+        }
+        if(minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0){
+            throw new InvalidOrderException("minAmount must not be greater than maxAmount");
+        }
+        return PageRequest.of(page, size);
+    }
+
+    private static BigDecimal lower(BigDecimal minAmount){
+        return minAmount == null ? MIN_AMOUNT : minAmount;
+    }
+
+    private static BigDecimal upper(BigDecimal maxAmount){
+        return maxAmount == null ? MAX_AMOUNT : maxAmount;
+    }
+
+    private OrderSliceResponse toSliceResponse(Slice<OrderEntity> orders){
+        return OrderSliceResponse.builder()
+                .orders(orders.getContent().stream().map(orderMapper::toResponse).collect(Collectors.toList()))
+                .page(orders.getNumber())
+                .size(orders.getSize())
+                .hasNext(orders.hasNext())
+                .build();
+    }
+
+    // In id order on one shard; with several shards each shard is streamed in turn, in id order within the shard.
+    public void streamAll(Consumer<OrderResponse> consumer){
+        log.debug("Streaming all Orders");
+        for (int shard = 0; shard < orderShards.count(); shard++) {
+            orderShards.run(shard, () -> orderRepository.forEachOrder(orderEntity -> consumer.accept(orderMapper.toResponse(orderEntity))));
+        }
+    }
+
     public String deleteById(Long id){
-        log.info("Delete order with id={}", id);
-        OrderEntity deleteEntity = orderRepository.findById(id).orElseThrow(()->{
-            log.warn("For deleting Order with id={} not found", id);
-            return new OrderNotFoundException("Order with id=" + id + " not found");
+        log.debug("Delete order with id={}", id);
+        orderShards.run(orderShards.forOrder(id), () -> writeGuarded(id, cachedSnapshot(id), known -> tryDelete(id, known)));
+        orderCache.invalidate(id);
+        log.debug("Order deleted successfully with orderId={}", id);
+        return "Order deleted successfully with orderId=" + id;
+    }
+
+    // Null when the order is no longer at the version of the snapshot the DELETE was guarded with.
+    private OrderSnapshot tryDelete(Long id, OrderSnapshot known){
+        OrderSnapshot found = known != null ? known : orderRepository.findSnapshot(id).orElse(null);
+        OrderSnapshot previous;
+        if(found == null){
+            previous = deleteArchived(id).orElseThrow(() -> {
+                log.warn("For deleting Order with id={} not found", id);
+                return new OrderNotFoundException("Order with id=" + id + " not found");
+            });
+        } else if(orderRepository.deleteOrderById(id, found.version()) == 0){
+            return null;
+        } else {
+            previous = found;
+        }
+        orderEventOutbox.record(OrderEventType.OrderDeleted, id, null);
+        afterCommit(() -> {
+            orderAggregates.remove(previous.userId(), previous.amount(), previous.status());
+            orderIdFilter.remove(id);
+            recentWrites.record(id);
         });
-            orderRepository.delete(deleteEntity);
-            log.info("Order deleted successfully with orderId={}", id);
-            return "Order deleted successfully with orderId=" + id;
+        return previous;
+    }
 
+    // Deleting an archived order removes it from the archive; the snapshot lets the caller treat it like a hot row.
+    private Optional<OrderSnapshot> deleteArchived(Long id){
+        return archivedOrderRepository.findById(id)
+                .filter(archived -> archivedOrderRepository.deleteArchivedById(id) > 0)
+                .map(archived -> new OrderSnapshot(archived.getId(), archived.getUserId(), archived.getAmount(),
+                        archived.getStatus(), archived.getVersion()));
     }
 
     public OrderResponse updateOrder(UpdateOrderRequestDto updateOrderRequestDto, Long id){
-        log.info("Updating order with id={}", id);
-        if(updateOrderRequestDto.getAmount()==null || updateOrderRequestDto.getAmount().compareTo(BigDecimal.ZERO)<=0){
+        return updateOrder(updateOrderRequestDto, id, null);
+    }
+
+    // One guarded UPDATE (id, version, not cancelled) and no row lock taken before it. The previous values the
+    // aggregates and the response need come from the snapshot the statement was guarded with: the cached order, since
+    // every write bumps the version, or else a plain read, which also checks a non-null expectedVersion (from If-Match)
+    // and tells missing, archived and cancelled orders apart. MySQL has no UPDATE ... RETURNING.
+    public OrderResponse updateOrder(UpdateOrderRequestDto updateOrderRequestDto, Long id, Long expectedVersion){
+        log.debug("Updating order with id={}", id);
+        try {
+            OrderValidator.validateAmount(updateOrderRequestDto.getAmount());
+        } catch (InvalidOrderException ex) {
             log.warn("Trying to update the amount with zero ");
-            throw new InvalidOrderException("Amount must be greater than zero");
+            throw ex;
         }
 
-        OrderEntity getEntity = orderRepository.findById(id).orElseThrow(() ->{
+        int shard = orderShards.forOrder(id);
+        if(updateOrderRequestDto.getUserId() != null && orderShards.forUser(updateOrderRequestDto.getUserId()) != shard){
+            log.warn("Attempt to move order id={} to userId={} on another shard", id, updateOrderRequestDto.getUserId());
+            throw new InvalidOrderException("Order cannot be moved to a user on another shard");
+        }
+        OrderSnapshot cached = cachedSnapshot(id);
+        OrderSnapshot known = cached != null && cached.status() != OrderStatus.Cancelled
+                && (expectedVersion == null || expectedVersion.equals(cached.version())) ? cached : null;
+        OrderResponse orderResponse = orderShards.on(shard, () -> writeGuarded(id, known,
+                snapshot -> tryUpdate(updateOrderRequestDto, id, expectedVersion, snapshot)));
+        log.debug("Order updated successfully with orderId= {}, new status= {}", id, orderResponse.getStatus());
+        orderCache.put(orderResponse);
+        return orderResponse;
+    }
+
+    // Null when the order is no longer at the version of the snapshot the UPDATE was guarded with, or was cancelled.
+    private OrderResponse tryUpdate(UpdateOrderRequestDto updateOrderRequestDto, Long id, Long expectedVersion, OrderSnapshot known){
+        OrderSnapshot previous = known != null ? known : findUpdatable(id, expectedVersion);
+        if(orderRepository.updateIfNotCancelled(id, previous.version(), updateOrderRequestDto.getUserId(),
+                updateOrderRequestDto.getAmount(), updateOrderRequestDto.getStatus()) == 0){
+            return null;
+        }
+        OrderResponse updatedOrder = OrderResponse.builder()
+                .id(id)
+                .userId(updateOrderRequestDto.getUserId() != null ? updateOrderRequestDto.getUserId() : previous.userId())
+                .amount(updateOrderRequestDto.getAmount() != null ? updateOrderRequestDto.getAmount() : previous.amount())
+                .status(updateOrderRequestDto.getStatus() != null ? updateOrderRequestDto.getStatus() : previous.status())
+                .version(nextVersion(previous))
+                .build();
+        orderEventOutbox.record(OrderEventType.OrderUpdated, id, updatedOrder);
+        afterCommit(() -> {
+            orderAggregates.remove(previous.userId(), previous.amount(), previous.status());
+            orderAggregates.add(updatedOrder.getUserId(), updatedOrder.getAmount(), updatedOrder.getStatus());
+            recentWrites.record(id);
+        });
+        return updatedOrder;
+    }
+
+    private OrderSnapshot findUpdatable(Long id, Long expectedVersion){
+        OrderSnapshot previous = orderRepository.findSnapshot(id).orElseThrow(() -> {
+            if(archivedOrderRepository.existsById(id)){
+                log.warn("Attempt to update archived order id={}", id);
+                return new InvalidOrderException("Archived Order cannot be updated");
+            }
             log.warn(" For update Order with id={} not found", id);
             return new OrderNotFoundException("Order with id=" + id + " not found");
         });
-        log.debug("Existing order found with id={}, current status={}", id, getEntity.getStatus());
-        if(getEntity.getStatus() == OrderStatus.Cancelled){
-            log.warn("Attempt to update cancelled order with status={}",updateOrderRequestDto.getStatus());
+        if(expectedVersion != null && !expectedVersion.equals(previous.version())){
+            log.warn("Update of order id={} expected version={} but found version={}", id, expectedVersion, previous.version());
+            throw new OrderVersionMismatchException("Order with id=" + id + " was modified, current version=" + previous.version());
+        }
+        if(previous.status() == OrderStatus.Cancelled){
+            log.warn("Attempt to update cancelled order id={}", id);
             throw new InvalidOrderException("Cancelled Order cannot be updated");
         }
+        return previous;
+    }
 
-        orderMapper.updateEntity(updateOrderRequestDto,getEntity);
+    // Runs attempt in its own transaction, first with known (may be null), then with null so it reads the row itself.
+    // A fresh transaction per attempt matters on MySQL, where REPEATABLE READ would hand a retry the same stale read.
+    private <T> T writeGuarded(Long id, OrderSnapshot known, Function<OrderSnapshot, T> attempt){
+        OrderSnapshot snapshot = known;
+        for (int i = 0; i < MAX_WRITE_ATTEMPTS; i++) {
+            OrderSnapshot guard = snapshot;
+            T result = transactionOperations.execute(status -> attempt.apply(guard));
+            if(result != null){
+                return result;
+            }
+            snapshot = null;
+        }
+        log.warn("Order with id={} kept changing during {} write attempts", id, MAX_WRITE_ATTEMPTS);
+        throw new OrderVersionMismatchException("Order with id=" + id + " was modified concurrently, try again");
+    }
 
-            log.info("Order updated successfully with orderId= {}, new status= {}", id,getEntity.getStatus());
-            return orderMapper.toResponse( orderRepository.save(getEntity));
+    // Every write bumps the version, so a cached order at version v holds exactly the values of the row at v.
+    private OrderSnapshot cachedSnapshot(Long id){
+        OrderResponse cached = orderCache.getIfPresent(id);
+        if(cached == null || cached.getVersion() == null){
+            return null;
+        }
+        return new OrderSnapshot(cached.getId(), cached.getUserId(), cached.getAmount(), cached.getStatus(), cached.getVersion());
+    }
 
+    // Each chunk of up to BULK_CHUNK_SIZE orders is locked, checked and moved with one set-based UPDATE in its own
+    // transaction, so a large transition neither holds row locks until the end nor loses finished chunks on failure.
+    public BulkStatusUpdateResponse updateStatuses(BulkStatusUpdateRequest request){
+        OrderStatus status = request.getStatus();
+        if(status == null){
+            throw new InvalidOrderException("Order status must not be null");
+        }
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if(byIds == (request.getFromStatus() != null)){
+            throw new InvalidOrderException("Either ids or fromStatus must be given");
+        }
+        List<StatusUpdateResult> results = new ArrayList<>();
+        if(byIds){
+            if(request.getIds().size() > MAX_BULK_IDS){
+                throw new InvalidOrderException("Bulk update must contain at most " + MAX_BULK_IDS + " ids");
+            }
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            log.info("Bulk status update to {} for {} orders", status, ids.size());
+            groupByShard(ids, Function.identity(), orderShards::forOrder).forEach((shard, members) -> {
+                List<Long> shardIds = members.stream().map(ids::get).collect(Collectors.toList());
+                for (int from = 0; from < shardIds.size(); from += BULK_CHUNK_SIZE) {
+                    List<Long> chunk = shardIds.subList(from, Math.min(from + BULK_CHUNK_SIZE, shardIds.size()));
+                    results.addAll(orderShards.on(shard, () -> transactionOperations.execute(tx ->
+                            transitionChunk(chunk, orderRepository.findSnapshotsForUpdate(chunk), status))));
+                }
+            });
+        } else {
+            if(request.getFromStatus() == OrderStatus.Cancelled){
+                log.warn("Attempt to bulk update cancelled orders to status={}", status);
+                throw new InvalidOrderException("Cancelled Order cannot be updated");
+            }
+            log.info("Bulk status update from {} to {} for userId={}", request.getFromStatus(), status, request.getUserId());
+            for (int shard : request.getUserId() == null ? allShards() : List.of(orderShards.forUser(request.getUserId()))) {
+                long after = 0;
+                while (true) {
+                    long cursor = after;
+                    List<StatusUpdateResult> chunk = orderShards.on(shard, () -> transactionOperations.execute(tx -> {
+                        List<OrderSnapshot> snapshots = request.getUserId() == null
+                                ? orderRepository.findSnapshotsForUpdate(request.getFromStatus(), cursor, Limit.of(BULK_CHUNK_SIZE))
+                                : orderRepository.findSnapshotsForUpdate(request.getFromStatus(), request.getUserId(), cursor, Limit.of(BULK_CHUNK_SIZE));
+                        return transitionChunk(snapshots.stream().map(OrderSnapshot::id).collect(Collectors.toList()), snapshots, status);
+                    }));
+                    results.addAll(chunk);
+                    if(chunk.size() < BULK_CHUNK_SIZE){
+                        break;
+                    }
+                    after = chunk.get(chunk.size() - 1).getId();
+                }
+            }
+        }
+
+        int updated = 0;
+        int notFound = 0;
+        for (StatusUpdateResult result : results) {
+            if(result.getOutcome() == StatusUpdateOutcome.Updated){
+                updated++;
+            } else if(result.getOutcome() == StatusUpdateOutcome.NotFound){
+                notFound++;
+            }
+        }
+        log.info("Bulk status update to {} finished: updated={}, notFound={}, cancelled={}", status, updated, notFound,
+                results.size() - updated - notFound);
+        return BulkStatusUpdateResponse.builder()
+                .status(status)
+                .updated(updated)
+                .notFound(notFound)
+                .cancelled(results.size() - updated - notFound)
+                .results(results)
+                .build();
     }
 
+    private List<StatusUpdateResult> transitionChunk(List<Long> ids, List<OrderSnapshot> snapshots, OrderStatus status){
+        Map<Long, OrderSnapshot> found = new HashMap<>(snapshots.size() * 2);
+        List<Long> eligible = new ArrayList<>(snapshots.size());
+        for (OrderSnapshot snapshot : snapshots) {
+            found.put(snapshot.id(), snapshot);
+            if(snapshot.status() != OrderStatus.Cancelled){
+                eligible.add(snapshot.id());
+            }
+        }
+        if(!eligible.isEmpty()){
+            orderRepository.updateStatusIfNotCancelled(eligible, status);
+            List<OrderResponse> updatedOrders = new ArrayList<>(eligible.size());
+            for (Long id : eligible) {
+                OrderSnapshot previous = found.get(id);
+                updatedOrders.add(OrderResponse.builder().id(id).userId(previous.userId()).amount(previous.amount()).status(status)
+                        .version(nextVersion(previous)).build());
+            }
+            orderEventOutbox.recordAll(OrderEventType.OrderUpdated, updatedOrders);
+            afterCommit(() -> {
+                for (OrderResponse updatedOrder : updatedOrders) {
+                    OrderSnapshot previous = found.get(updatedOrder.getId());
+                    orderAggregates.remove(previous.userId(), previous.amount(), previous.status());
+                    orderAggregates.add(updatedOrder.getUserId(), updatedOrder.getAmount(), status);
+                    orderCache.invalidate(updatedOrder.getId());
+                    recentWrites.record(updatedOrder.getId());
+                }
+            });
+        }
+        List<StatusUpdateResult> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            OrderSnapshot snapshot = found.get(id);
+            StatusUpdateOutcome outcome = snapshot == null ? StatusUpdateOutcome.NotFound
+                    : snapshot.status() == OrderStatus.Cancelled ? StatusUpdateOutcome.Cancelled
+                    : StatusUpdateOutcome.Updated;
+            results.add(StatusUpdateResult.builder().id(id).outcome(outcome).build());
+        }
+        return results;
+    }
+
+    public UserOrderAggregateResponse aggregatesForUser(Long userId){
+        return orderAggregates.forUser(userId);
+    }
+
+    public OrderStatusAggregatesResponse aggregatesByStatus(){
+        return orderAggregates.byStatus();
+    }
+
+    private List<Integer> allShards(){
+        List<Integer> shards = new ArrayList<>(orderShards.count());
+        for (int shard = 0; shard < orderShards.count(); shard++) {
+            shards.add(shard);
+        }
+        return shards;
+    }
+
+    private <T> Map<Integer, List<Integer>> groupByShard(List<T> items, Function<T, Long> userId){
+        return groupByShard(items, userId, orderShards::forUser);
+    }
+
+    // Positions of the items per shard, shards in ascending order and positions in list order.
+    private static <T> Map<Integer, List<Integer>> groupByShard(List<T> items, Function<T, Long> key, Function<Long, Integer> shardOf){
+        Map<Integer, List<Integer>> byShard = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            byShard.computeIfAbsent(shardOf.apply(key.apply(items.get(i))), shard -> new ArrayList<>()).add(i);
+        }
+        return byShard;
+    }
 
+    // Merges per-shard results that are each sorted by the comparator and keeps the first limit rows.
+    private static List<OrderEntity> merge(List<List<OrderEntity>> perShard, Comparator<OrderEntity> order, int limit){
+        if(perShard.size() == 1){
+            List<OrderEntity> only = perShard.get(0);
+            return only.size() > limit ? only.subList(0, limit) : only;
+        }
+        List<OrderEntity> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(order);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    // In-memory state that follows a committed create.
+    private void onCreated(OrderResponse createdOrder){
+        orderAggregates.add(createdOrder.getUserId(), createdOrder.getAmount(), createdOrder.getStatus());
+        orderIdFilter.add(createdOrder.getId());
+        recentWrites.record(createdOrder.getId());
+    }
+
+    // Aggregates must only see committed writes; outside a transaction (unit tests) the action runs immediately.
+    private static void afterCommit(Runnable action){
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Matches the "version = version + 1" of the update queries.
+    private static Long nextVersion(OrderSnapshot previous){
+        return previous.version() == null ? null : previous.version() + 1;
+    }
+
+    private static String fingerprint(CreateOrderRequest createOrderRequest){
+        BigDecimal amount = createOrderRequest.getAmount();
+        return createOrderRequest.getUserId() + ":" + (amount == null ? null : amount.stripTrailingZeros().toPlainString());
+    }
 }
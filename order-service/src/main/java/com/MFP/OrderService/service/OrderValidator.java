@@ -0,0 +1,30 @@
+package com.MFP.OrderService.service;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.exception.InvalidOrderException;
+
+import java.math.BigDecimal;
+
+public final class OrderValidator {
+    // Largest value of the orders.amount column (DECIMAL(38,2)).
+    static final BigDecimal MAX_AMOUNT = new BigDecimal("999999999999999999999999999999999999.99");
+
+    private OrderValidator() {
+    }
+
+    public static void validateCreateRequest(CreateOrderRequest createOrderRequest){
+        if(createOrderRequest == null || createOrderRequest.getUserId() == null){
+            throw new InvalidOrderException("User id must not be null");
+        }
+        validateAmount(createOrderRequest.getAmount());
+    }
+
+    public static void validateAmount(BigDecimal amount){
+        if(amount == null || amount.compareTo(BigDecimal.ZERO) <= 0){
+            throw new InvalidOrderException("Amount must be greater than zero");
+        }
+        if(amount.compareTo(MAX_AMOUNT) > 0){
+            throw new InvalidOrderException("Amount must be at most " + MAX_AMOUNT.toPlainString());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.MFP.OrderService.shard;
+
+import com.MFP.OrderService.config.ShardingProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+// Placement of orders on shards. A user hashes to one of SLOTS fixed slots and a table assigns every slot to a shard;
+// an order lives on the shard of its user and its id carries that shard in the low SHARD_BITS bits:
+// id = local sequence value << SHARD_BITS | shard, so a lookup by id goes straight to one shard. Neither the slots nor
+// the id bits depend on the number of shards, so appending a shard moves no order and no user as long as the existing
+// shards keep their slots. Ids up to legacyIdLimit are plain sequence values from before sharding and live on shard 0.
+// Without order.sharding there is a single shard and ids are the plain sequence values.
+// The count comes from the ShardRoutingDataSource bean, not the properties, so it always matches the shards the
+// application actually routes to, also in an AOT build where ShardingConfig is decided at build time.
+@Component
+public class OrderShards implements DisposableBean {
+    public static final int SHARD_BITS = 4;
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+    static final int SLOT_BITS = 10;
+    static final int SLOTS = 1 << SLOT_BITS;
+
+    private final int count;
+    private final int[] slotShards;
+    private final long legacyIdLimit;
+    private final ExecutorService scatterExecutor;
+
+    @Autowired
+    public OrderShards(ObjectProvider<ShardRoutingDataSource> dataSource, ShardingProperties properties) {
+        this(dataSource.stream().findFirst().map(ShardRoutingDataSource::shardCount).orElse(1), properties);
+    }
+
+    private OrderShards(int count, ShardingProperties properties) {
+        this(count, count == properties.getShards().size()
+                        ? properties.getShards().stream().map(ShardingProperties.Shard::getSlots).toList()
+                        : List.of(),
+                count > 1 ? properties.getLegacyIdLimit() : 0, properties.getScatterThreads());
+    }
+
+    public OrderShards(int count, int scatterThreads) {
+        this(count, List.of(), 0, scatterThreads);
+    }
+
+    // slots holds the slot ranges of each shard ("0-511" or "0-255,768-1023"); empty or all null splits them evenly.
+    public OrderShards(int count, List<String> slots, long legacyIdLimit, int scatterThreads) {
+        if (count < 1 || count > MAX_SHARDS) {
+            throw new IllegalStateException("Shard count must be between 1 and " + MAX_SHARDS + ", was " + count);
+        }
+        this.count = count;
+        this.slotShards = slotTable(count, slots);
+        this.legacyIdLimit = legacyIdLimit;
+        this.scatterExecutor = count > 1
+                ? Executors.newFixedThreadPool(scatterThreads, new CustomizableThreadFactory("order-shard-"))
+                : null;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int forUser(Long userId) {
+        if (count == 1 || userId == null) {
+            return 0;
+        }
+        return slotShards[slotOf(userId)];
+    }
+
+    // An id whose shard bits name no configured shard is looked up on shard 0, which does not have it either.
+    public int forOrder(Long id) {
+        if (count == 1) {
+            return 0;
+        }
+        int shard = shardOf(id, legacyIdLimit);
+        return shard < count ? shard : 0;
+    }
+
+    public <T> T on(int shard, Supplier<T> action) {
+        return ShardContext.call(shard, action);
+    }
+
+    public void run(int shard, Runnable action) {
+        ShardContext.call(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    // Runs the action once per shard, concurrently when there are several, and returns the results in shard order.
+    public <T> List<T> onEach(Supplier<T> action) {
+        if (count == 1) {
+            return List.of(ShardContext.call(0, action));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardContext.call(target, action), scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+
+    // Local values are shifted past legacyIdLimit, so new ids of every shard sort above the plain ids before it.
+    public static long encode(long local, int shard, long legacyIdLimit) {
+        return Math.multiplyExact(Math.addExact(local, legacyIdLimit >>> SHARD_BITS), (long) MAX_SHARDS) | shard;
+    }
+
+    public static int shardOf(Long id, long legacyIdLimit) {
+        return id == null || id <= legacyIdLimit ? 0 : (int) (id & (MAX_SHARDS - 1));
+    }
+
+    // Fibonacci hashing spreads consecutive user ids evenly over the slots.
+    static int slotOf(long userId) {
+        return (int) ((userId * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - SLOT_BITS));
+    }
+
+    private static int[] slotTable(int count, List<String> slots) {
+        int[] table = new int[SLOTS];
+        if (slots.stream().allMatch(ranges -> ranges == null || ranges.isBlank())) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                table[slot] = slot * count / SLOTS;
+            }
+            return table;
+        }
+        Arrays.fill(table, -1);
+        for (int shard = 0; shard < slots.size(); shard++) {
+            String ranges = slots.get(shard);
+            if (ranges == null || ranges.isBlank()) {
+                continue;
+            }
+            for (String range : ranges.split(",")) {
+                String[] bounds = range.trim().split("-", 2);
+                int first = Integer.parseInt(bounds[0].trim());
+                int last = bounds.length == 1 ? first : Integer.parseInt(bounds[1].trim());
+                if (first < 0 || last >= SLOTS || first > last) {
+                    throw new IllegalStateException("Slot range " + range.trim() + " of shard " + shard + " is outside 0-" + (SLOTS - 1));
+                }
+                for (int slot = first; slot <= last; slot++) {
+                    if (table[slot] != -1) {
+                        throw new IllegalStateException("Slot " + slot + " is assigned to shards " + table[slot] + " and " + shard);
+                    }
+                    table[slot] = shard;
+                }
+            }
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (table[slot] == -1) {
+                throw new IllegalStateException("Slot " + slot + " is not assigned to any shard");
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,19 @@
+package com.MFP.OrderService.shard;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+// Replaces @GeneratedValue + @SequenceGenerator for ids that must be unique across shards, see ShardedSequenceGenerator.
+@IdGeneratorType(ShardedSequenceGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface ShardedSequence {
+    String name();
+
+    int allocationSize() default 50;
+}
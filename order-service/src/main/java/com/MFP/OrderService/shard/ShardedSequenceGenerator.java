@@ -0,0 +1,59 @@
+package com.MFP.OrderService.shard;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The pooled sequence generator with one optimizer per shard: every shard has its own copy of the sequence, so a block
+// fetched on one shard must never be handed out on another. The value is then combined with the shard into the id
+// (OrderShards.encode). With a single shard it behaves exactly like @SequenceGenerator.
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+    public static final String SHARD_COUNT = "order.sharding.shard-count";
+    public static final String LEGACY_ID_LIMIT = "order.sharding.legacy-id-limit";
+
+    private final String sequenceName;
+    private final int allocationSize;
+    private final Map<Integer, Optimizer> optimizers = new ConcurrentHashMap<>();
+    private int shardCount = 1;
+    private long legacyIdLimit = 0;
+
+    public ShardedSequenceGenerator(ShardedSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        this.sequenceName = config.name();
+        this.allocationSize = config.allocationSize();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        super.configure(type, parameters, serviceRegistry);
+        Map<String, Object> settings = serviceRegistry.requireService(ConfigurationService.class).getSettings();
+        Object count = settings.get(SHARD_COUNT);
+        shardCount = count == null ? 1 : Integer.parseInt(count.toString());
+        Object limit = settings.get(LEGACY_ID_LIMIT);
+        legacyIdLimit = limit == null ? 0 : Long.parseLong(limit.toString());
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        if (shardCount == 1) {
+            return super.generate(session, object);
+        }
+        int shard = ShardContext.current();
+        Optimizer optimizer = optimizers.computeIfAbsent(shard, ignored -> OptimizerFactory.buildOptimizer(
+                StandardOptimizerDescriptor.POOLED, Long.class, allocationSize, getDatabaseStructure().getInitialValue()));
+        long local = ((Number) optimizer.generate(getDatabaseStructure().buildCallback(session))).longValue();
+        return OrderShards.encode(local, shard, legacyIdLimit);
+    }
+}
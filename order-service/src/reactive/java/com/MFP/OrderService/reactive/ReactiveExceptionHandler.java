@@ -0,0 +1,69 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.exception.ErrorResponse;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderAlreadyExistsException;
+import com.MFP.OrderService.exception.OrderNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+// GlobalExceptionHandler's error contract (status, error code, message, path and the order.exceptions counter) for WebFlux.
+@Slf4j
+@RestControllerAdvice
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex, ServerHttpRequest request){
+        String message = ex.getBindingResult()
+                .getFieldErrors()
+                .stream()
+                .map(err->err.getField()+": "+err.getDefaultMessage())
+                .findFirst()
+                .orElse("Validation Failed");
+        log.warn("Validation Error: [{}]", message);
+        return error(ex, HttpStatus.BAD_REQUEST, "Validation Error", message, request);
+    }
+
+    @ExceptionHandler(InvalidOrderException.class)
+    public ResponseEntity<ErrorResponse> handelInvalidOrderException(InvalidOrderException ex, ServerHttpRequest request){
+        log.warn("Invalid Order Exception: {}", ex.getMessage());
+        return error(ex, HttpStatus.BAD_REQUEST, "Invalid_Order", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(OrderAlreadyExistsException.class)
+    public ResponseEntity<ErrorResponse> handleOrderAlreadyExists(OrderAlreadyExistsException ex, ServerHttpRequest request){
+        log.warn("Order Already Exists Exception: {}", ex.getMessage());
+        return error(ex, HttpStatus.CONFLICT, "Order_Already_Exists", ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handelOrderNotFoundException(OrderNotFoundException ex, ServerHttpRequest request){
+        log.warn("Order Not Found Exception: {}", ex.getMessage());
+        return error(ex, HttpStatus.NOT_FOUND, "Order_NotFound", ex.getMessage(), request);
+    }
+
+    // Same as the servlet handler: HTTP 400 with a 500 body.
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, ServerHttpRequest request){
+        log.warn("Unhandled Exception: {}", ex.getMessage());
+        meterRegistry.counter("order.exceptions", "exception", ex.getClass().getSimpleName()).increment();
+        return ResponseEntity.badRequest().body(
+                new ErrorResponse(500, "Internal Server Error", "something went wrong please try again later", request.getPath().value()));
+    }
+
+    private ResponseEntity<ErrorResponse> error(Exception ex, HttpStatus status, String error, String message, ServerHttpRequest request){
+        meterRegistry.counter("order.exceptions", "exception", ex.getClass().getSimpleName()).increment();
+        return ResponseEntity.status(status).body(new ErrorResponse(status.value(), error, message, request.getPath().value()));
+    }
+}
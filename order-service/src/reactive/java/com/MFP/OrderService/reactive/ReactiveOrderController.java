@@ -0,0 +1,66 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same routes, status codes and error bodies as OrderController for the CRUD endpoints.
+@Slf4j
+@RestController
+@RequestMapping("api/order/v1")
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderController {
+    private final ReactiveOrderService orderService;
+
+    @PostMapping
+    public Mono<ResponseEntity<OrderResponse>> createOrder(@Valid @RequestBody CreateOrderRequest createOrderRequest) {
+        log.info("POST /order request received ");
+        return orderService.createOrder(createOrderRequest)
+                .map(createdOrder -> new ResponseEntity<>(createdOrder, HttpStatus.CREATED));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<OrderResponse>> updateOrderById(@Valid @RequestBody UpdateOrderRequestDto updateOrderRequestDto, @PathVariable Long id) {
+        log.info("PUT /order request Updated with id {}", id);
+        return orderService.updateOrder(updateOrderRequestDto, id)
+                .map(updatedOrder -> new ResponseEntity<>(updatedOrder, HttpStatus.ACCEPTED));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteOrderById(@PathVariable Long id) {
+        log.info("DELETE /order request Delete with id {}", id);
+        return orderService.deleteById(id)
+                .map(deleted -> new ResponseEntity<>(deleted, HttpStatus.OK));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<OrderResponse>> findById(@PathVariable Long id) {
+        log.info("GET /order request fetch by id={}",id);
+        return orderService.findById(id)
+                .map(orderResponse -> new ResponseEntity<>(orderResponse, HttpStatus.FOUND));
+    }
+
+    // Written as a JSON array while rows are still being read; the database is only paged as fast as the client reads.
+    @GetMapping
+    public ResponseEntity<Flux<OrderResponse>> gatAllOrders() {
+        log.info("GET /All Orders streaming started");
+        return new ResponseEntity<>(orderService.streamAll(), HttpStatus.FOUND);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrderResponse> streamAllOrders() {
+        log.info("GET /All Orders streaming started");
+        return orderService.streamAll();
+    }
+}
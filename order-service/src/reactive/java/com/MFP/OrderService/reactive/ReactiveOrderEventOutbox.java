@@ -0,0 +1,57 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.enums.OrderEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// Reactive counterpart of OrderEventOutbox: writes the same order_outbox rows, so a servlet instance's OutboxRelay
+// publishes events for orders changed here. Callers run it inside the transaction of the order change.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderEventOutbox {
+    private final DatabaseClient databaseClient;
+    private final SequenceIdAllocator eventIds;
+    private final ObjectWriter orderWriter;
+
+    public ReactiveOrderEventOutbox(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.eventIds = new SequenceIdAllocator(databaseClient, transactionManager, "order_outbox_seq", 50);
+        this.orderWriter = objectMapper.writerFor(OrderResponse.class);
+    }
+
+    public Mono<Void> record(OrderEventType eventType, Long orderId, OrderResponse order) {
+        return eventIds.nextId()
+                .flatMap(id -> {
+                    DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("insert into order_outbox (id, order_id, event_type, payload, created_at) "
+                                    + "values (:id, :orderId, :eventType, :payload, :createdAt)")
+                            .bind("id", id)
+                            .bind("orderId", orderId)
+                            .bind("eventType", eventType.name())
+                            .bind("createdAt", Instant.now());
+                    String payload = payload(orderId, order);
+                    insert = payload == null ? insert.bindNull("payload", String.class) : insert.bind("payload", payload);
+                    return insert.fetch().rowsUpdated();
+                })
+                .then();
+    }
+
+    private String payload(Long orderId, OrderResponse order) {
+        if (order == null) {
+            return null;
+        }
+        try {
+            return orderWriter.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order event for orderId=" + orderId + " could not be serialized", e);
+        }
+    }
+}
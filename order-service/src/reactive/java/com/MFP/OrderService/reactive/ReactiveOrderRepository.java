@@ -0,0 +1,105 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.OrderStatus;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// R2DBC access to the orders table created by the JPA deployment. Rows map to OrderEntity so OrderMapper is shared.
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderRepository {
+    private static final String COLUMNS = "id, user_id, amount, status, version";
+
+    private final DatabaseClient databaseClient;
+    private final SequenceIdAllocator orderIds;
+
+    public ReactiveOrderRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.orderIds = new SequenceIdAllocator(databaseClient, transactionManager, "orders_seq", 50);
+    }
+
+    public Mono<OrderEntity> insert(OrderEntity orderEntity) {
+        return orderIds.nextId()
+                .flatMap(id -> databaseClient.sql("insert into orders (id, user_id, amount, status, version) values (:id, :userId, :amount, :status, 0)")
+                        .bind("id", id)
+                        .bind("userId", orderEntity.getUserId())
+                        .bind("amount", orderEntity.getAmount())
+                        .bind("status", orderEntity.getStatus().name())
+                        .fetch()
+                        .rowsUpdated()
+                        .then(Mono.fromSupplier(() -> {
+                            orderEntity.setId(id);
+                            orderEntity.setVersion(0L);
+                            return orderEntity;
+                        })));
+    }
+
+    public Mono<OrderEntity> findById(Long id) {
+        return databaseClient.sql("select " + COLUMNS + " from orders where id = :id")
+                .bind("id", id)
+                .map(ReactiveOrderRepository::toEntity)
+                .one();
+    }
+
+    public Mono<OrderEntity> findByIdForUpdate(Long id) {
+        return databaseClient.sql("select " + COLUMNS + " from orders where id = :id for update")
+                .bind("id", id)
+                .map(ReactiveOrderRepository::toEntity)
+                .one();
+    }
+
+    public Mono<List<OrderEntity>> findAfter(long after, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from orders where id > :after order by id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveOrderRepository::toEntity)
+                .all()
+                .collectList();
+    }
+
+    // Keyset pages of fetchSize rows; the next page is only queried once the subscriber has asked for the rows of this one.
+    public Flux<OrderEntity> streamAll(int fetchSize) {
+        return findAfter(0L, fetchSize)
+                .expand(page -> page.size() < fetchSize ? Mono.empty() : findAfter(page.get(page.size() - 1).getId(), fetchSize))
+                .flatMapIterable(page -> page, 1);
+    }
+
+    // Bumps the version like the JPA updates do; the caller already holds the row lock and sets the new version on the entity.
+    public Mono<Long> updateIfNotCancelled(OrderEntity orderEntity) {
+        return databaseClient.sql("update orders set user_id = :userId, amount = :amount, status = :status, version = version + 1, "
+                        + "updated_at = current_timestamp(6) where id = :id and status <> 'Cancelled'")
+                .bind("userId", orderEntity.getUserId())
+                .bind("amount", orderEntity.getAmount())
+                .bind("status", orderEntity.getStatus().name())
+                .bind("id", orderEntity.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(Long id) {
+        return databaseClient.sql("delete from orders where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static OrderEntity toEntity(Readable row) {
+        String status = row.get("status", String.class);
+        return OrderEntity.builder()
+                .id(row.get("id", Long.class))
+                .userId(row.get("user_id", Long.class))
+                .amount(row.get("amount", BigDecimal.class))
+                .status(status == null ? null : OrderStatus.valueOf(status))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
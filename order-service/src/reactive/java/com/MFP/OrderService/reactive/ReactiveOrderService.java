@@ -0,0 +1,100 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.OrderEventType;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderNotFoundException;
+import com.MFP.OrderService.mapper.OrderMapper;
+import com.MFP.OrderService.service.OrderValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same rules and events as OrderService, without blocking a thread on the database.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderService {
+    static final int STREAM_FETCH_SIZE = 500;
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveOrderEventOutbox orderEventOutbox;
+    private final OrderMapper orderMapper;
+    private final TransactionalOperator transactionalOperator;
+
+    public Mono<OrderResponse> createOrder(CreateOrderRequest createOrderRequest){
+        return Mono.fromRunnable(() -> OrderValidator.validateCreateRequest(createOrderRequest))
+                .then(Mono.defer(() -> {
+                    log.info("Create order request was received for user id={}, and amount={} ",createOrderRequest.getUserId(), createOrderRequest.getAmount());
+                    OrderEntity orderEntity = orderMapper.toEntity(createOrderRequest);
+                    orderEntity.setStatus(OrderStatus.Created);
+                    return orderRepository.insert(orderEntity);
+                }))
+                .map(orderMapper::toResponse)
+                .flatMap(createdOrder -> orderEventOutbox.record(OrderEventType.OrderCreated, createdOrder.getId(), createdOrder)
+                        .thenReturn(createdOrder))
+                .as(transactionalOperator::transactional)
+                .doOnNext(createdOrder -> log.info("Order Cerated successfully with id={}", createdOrder.getId()));
+    }
+
+    public Mono<OrderResponse> findById(Long id){
+        return orderRepository.findById(id)
+                .map(orderMapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("Order with id={} not found", id);
+                    return new OrderNotFoundException("Order with id=" + id + " not found");
+                }));
+    }
+
+    public Flux<OrderResponse> streamAll(){
+        log.debug("Streaming all Orders");
+        return orderRepository.streamAll(STREAM_FETCH_SIZE).map(orderMapper::toResponse);
+    }
+
+    public Mono<OrderResponse> updateOrder(UpdateOrderRequestDto updateOrderRequestDto, Long id){
+        return Mono.fromRunnable(() -> OrderValidator.validateAmount(updateOrderRequestDto.getAmount()))
+                .then(orderRepository.findByIdForUpdate(id))
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn(" For update Order with id={} not found", id);
+                    return new OrderNotFoundException("Order with id=" + id + " not found");
+                }))
+                .flatMap(orderEntity -> {
+                    if(orderEntity.getStatus() == OrderStatus.Cancelled){
+                        log.warn("Attempt to update cancelled order with status={}",updateOrderRequestDto.getStatus());
+                        return Mono.error(new InvalidOrderException("Cancelled Order cannot be updated"));
+                    }
+                    orderMapper.updateEntity(updateOrderRequestDto, orderEntity);
+                    orderEntity.setVersion(orderEntity.getVersion() + 1);
+                    OrderResponse updatedOrder = orderMapper.toResponse(orderEntity);
+                    return orderRepository.updateIfNotCancelled(orderEntity)
+                            .then(orderEventOutbox.record(OrderEventType.OrderUpdated, id, updatedOrder))
+                            .thenReturn(updatedOrder);
+                })
+                .as(transactionalOperator::transactional)
+                .doOnNext(updatedOrder -> log.info("Order updated successfully with orderId= {}, new status= {}", id, updatedOrder.getStatus()));
+    }
+
+    public Mono<String> deleteById(Long id){
+        return orderRepository.findByIdForUpdate(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("For deleting Order with id={} not found", id);
+                    return new OrderNotFoundException("Order with id=" + id + " not found");
+                }))
+                .flatMap(orderEntity -> orderRepository.deleteById(id))
+                .then(orderEventOutbox.record(OrderEventType.OrderDeleted, id, null))
+                .as(transactionalOperator::transactional)
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Order deleted successfully with orderId={}", id);
+                    return "Order deleted successfully with orderId=" + id;
+                }));
+    }
+}
@@ -0,0 +1,43 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.mapper.OrderMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+
+// WebFlux + R2DBC deployment of the order API, built with -Preactive. Only this package and OrderMapper are scanned,
+// and every bean here is reactive-only, so the servlet OrderServiceApplication ignores them when both are compiled.
+@Slf4j
+@SpringBootApplication(scanBasePackageClasses = {ReactiveOrderServiceApplication.class, OrderMapper.class},
+        exclude = DataSourceAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrderServiceApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveOrderServiceApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    // Tomcat is also on the classpath (servlet deployment) and Boot would prefer it; this variant is about Netty's event loop.
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+
+    @PostConstruct
+    public void init(){
+        log.info("Reactive Order Service Application started successfully");
+    }
+}
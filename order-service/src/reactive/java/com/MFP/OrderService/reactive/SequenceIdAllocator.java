@@ -0,0 +1,69 @@
+package com.MFP.OrderService.reactive;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+
+// Hands out ids from the same sequences Hibernate uses for the servlet deployment, so both can write the same tables.
+// Like Hibernate's pooled optimizer, a fetched value v reserves ids (v - allocationSize, v]. On MySQL the sequence is
+// Hibernate's emulation table (<name>.next_val), advanced in its own transaction as Hibernate does.
+class SequenceIdAllocator {
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator ownTransaction;
+    private final String sequence;
+    private final int allocationSize;
+    private final boolean tableEmulation;
+    private long next = 1;
+    private long last = 0;
+
+    SequenceIdAllocator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager,
+                        String sequence, int allocationSize) {
+        this.databaseClient = databaseClient;
+        this.ownTransaction = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        this.sequence = sequence;
+        this.allocationSize = allocationSize;
+        String database = databaseClient.getConnectionFactory().getMetadata().getName();
+        this.tableEmulation = database.contains("MySQL") || database.contains("MariaDB");
+    }
+
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = take();
+            return id > 0 ? Mono.just(id) : fetchBlockEnd().map(this::startBlock);
+        });
+    }
+
+    private synchronized long take() {
+        return next <= last ? next++ : -1;
+    }
+
+    // A block fetched concurrently replaces the current one; the skipped ids are left as gaps, never reused.
+    private synchronized long startBlock(long blockEnd) {
+        long first = Math.max(1, blockEnd - allocationSize + 1);
+        next = first + 1;
+        last = blockEnd;
+        return first;
+    }
+
+    private Mono<Long> fetchBlockEnd() {
+        if (!tableEmulation) {
+            return databaseClient.sql("select next value for " + sequence)
+                    .map(row -> row.get(0, Long.class))
+                    .one();
+        }
+        return databaseClient.sql("select next_val from " + sequence + " for update")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(value -> databaseClient.sql("update " + sequence + " set next_val = :next where next_val = :current")
+                        .bind("next", value + allocationSize)
+                        .bind("current", value)
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(value))
+                .as(ownTransaction::transactional);
+    }
+}
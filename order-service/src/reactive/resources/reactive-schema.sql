@@ -0,0 +1,23 @@
+-- Same tables and sequences Hibernate creates for OrderEntity and OutboxEventEntity on H2.
+create sequence if not exists orders_seq start with 1 increment by 50;
+create sequence if not exists order_outbox_seq start with 1 increment by 50;
+
+create table if not exists orders (
+    id bigint not null primary key,
+    user_id bigint,
+    amount numeric(38, 2),
+    status varchar(255),
+    version bigint default 0 not null,
+    updated_at timestamp(6) with time zone default current_timestamp(6) not null
+);
+create index if not exists idx_orders_user_id on orders (user_id, id);
+create index if not exists idx_orders_status_id on orders (status, id);
+create index if not exists idx_orders_status_updated on orders (status, updated_at);
+
+create table if not exists order_outbox (
+    id bigint not null primary key,
+    order_id bigint not null,
+    event_type varchar(32) not null,
+    payload varchar(4000),
+    created_at timestamp(6) with time zone not null
+);
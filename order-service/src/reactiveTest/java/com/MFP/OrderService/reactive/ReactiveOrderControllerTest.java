@@ -0,0 +1,152 @@
+package com.MFP.OrderService.reactive;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles({"reactive", "test"})
+@SpringBootTest(classes = ReactiveOrderServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReactiveOrderControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void cleanTables() {
+        databaseClient.sql("delete from order_outbox").then().block();
+        databaseClient.sql("delete from orders").then().block();
+    }
+
+    @Test
+    void shouldCreateOrderAndRecordEvent() {
+        OrderResponse created = create(1L, BigDecimal.valueOf(250));
+
+        assertNotNull(created.getId());
+        assertEquals(OrderStatus.Created, created.getStatus());
+        assertEquals("OrderCreated", databaseClient.sql("select event_type from order_outbox where order_id = :id")
+                .bind("id", created.getId()).map(row -> row.get(0, String.class)).one().block());
+        webTestClient.get().uri("/api/order/v1/{id}", created.getId())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.FOUND)
+                .expectBody()
+                .jsonPath("$.userId").isEqualTo(1)
+                .jsonPath("$.amount").isEqualTo(250);
+    }
+
+    @Test
+    void shouldReturnValidationErrorLikeServletHandler() {
+        webTestClient.post().uri("/api/order/v1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateOrderRequest.builder().userId(1L).amount(BigDecimal.ZERO).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.error").isEqualTo("Validation Error")
+                .jsonPath("$.message").isEqualTo("amount: Amount must be grater than zero")
+                .jsonPath("$.path").isEqualTo("/api/order/v1");
+    }
+
+    @Test
+    void shouldReturnNotFoundForMissingOrder() {
+        webTestClient.get().uri("/api/order/v1/{id}", 424242)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Order_NotFound")
+                .jsonPath("$.message").isEqualTo("Order with id=424242 not found");
+    }
+
+    @Test
+    void shouldUpdateOrderButNotCancelledOne() {
+        OrderResponse created = create(1L, BigDecimal.TEN);
+
+        webTestClient.put().uri("/api/order/v1/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UpdateOrderRequestDto.builder().userId(2L).amount(BigDecimal.ONE).status(OrderStatus.Cancelled).build())
+                .exchange()
+                .expectStatus().isAccepted()
+                .expectBody()
+                .jsonPath("$.userId").isEqualTo(2)
+                .jsonPath("$.status").isEqualTo("Cancelled");
+
+        webTestClient.put().uri("/api/order/v1/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(UpdateOrderRequestDto.builder().userId(3L).amount(BigDecimal.ONE).status(OrderStatus.Approved).build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Invalid_Order")
+                .jsonPath("$.message").isEqualTo("Cancelled Order cannot be updated");
+    }
+
+    @Test
+    void shouldDeleteOrderAndRecordEvent() {
+        OrderResponse created = create(1L, BigDecimal.TEN);
+
+        webTestClient.delete().uri("/api/order/v1/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Order deleted successfully with orderId=" + created.getId());
+        webTestClient.delete().uri("/api/order/v1/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        assertEquals(List.of("OrderCreated", "OrderDeleted"), databaseClient.sql("select event_type from order_outbox where order_id = :id order by id")
+                .bind("id", created.getId()).map(row -> row.get(0, String.class)).all().collectList().block());
+    }
+
+    @Test
+    void shouldStreamAllOrdersAcrossPages() {
+        int count = ReactiveOrderService.STREAM_FETCH_SIZE + 3;
+        for (int i = 0; i < count; i++) {
+            databaseClient.sql("insert into orders (id, user_id, amount, status) values (:id, 1, 5.00, 'Created')")
+                    .bind("id", 1_000_000L + i).then().block();
+        }
+
+        List<OrderResponse> orders = webTestClient.get().uri("/api/order/v1")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.FOUND)
+                .expectBodyList(OrderResponse.class)
+                .returnResult()
+                .getResponseBody();
+        List<OrderResponse> streamed = webTestClient.get().uri("/api/order/v1/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(OrderResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(count, orders.size());
+        assertEquals(count, streamed.size());
+        assertEquals(1_000_000L + count - 1, orders.get(count - 1).getId());
+    }
+
+    private OrderResponse create(Long userId, BigDecimal amount) {
+        return webTestClient.post().uri("/api/order/v1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(CreateOrderRequest.builder().userId(userId).amount(amount).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(OrderResponse.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
@@ -0,0 +1,50 @@
+package com.MFP.OrderService.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Flux;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles({"reactive", "test"})
+@SpringBootTest(classes = ReactiveOrderServiceApplication.class)
+public class SequenceIdAllocatorTest {
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    @Test
+    void shouldHandOutPooledBlocksLikeHibernate() {
+        databaseClient.sql("create sequence allocator_test_seq start with 1 increment by 50").then().block();
+        SequenceIdAllocator allocator = new SequenceIdAllocator(databaseClient, transactionManager, "allocator_test_seq", 50);
+
+        List<Long> ids = Flux.range(0, 52).concatMap(i -> allocator.nextId()).collectList().block();
+
+        // The first value (1) only covers id 1, the next one (51) covers 2..51, then 101 covers 52..101.
+        assertEquals(1L, ids.get(0));
+        assertEquals(2L, ids.get(1));
+        assertEquals(51L, ids.get(50));
+        assertEquals(52L, ids.get(51));
+        assertEquals(101L, databaseClient.sql("select next value for allocator_test_seq").map(row -> row.get(0, Long.class)).one().block() - 50);
+    }
+
+    @Test
+    void shouldNotRepeatIdsUnderConcurrency() {
+        databaseClient.sql("create sequence allocator_concurrent_seq start with 1 increment by 50").then().block();
+        SequenceIdAllocator allocator = new SequenceIdAllocator(databaseClient, transactionManager, "allocator_concurrent_seq", 50);
+
+        List<Long> ids = Flux.range(0, 1000).flatMap(i -> allocator.nextId(), 64).collectList().block();
+
+        Set<Long> unique = new HashSet<>(ids);
+        assertEquals(1000, unique.size());
+    }
+}
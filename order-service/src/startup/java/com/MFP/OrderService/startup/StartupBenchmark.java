@@ -0,0 +1,227 @@
+package com.MFP.OrderService.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Cold-start benchmark: launches the service in a fresh JVM per run and measures the time from process start to the first
+// successful request, plus the resident set size at that moment. Variants are run round-robin so they share the same
+// machine conditions:
+//   jar           the repackaged jar as it is deployed today (java -jar, nested jars, no AOT, no CDS)
+//   aot-cds       the extracted jar with Spring AOT initializers and the AppCDS archive from the training run
+//   aot-cds-lazy  aot-cds plus the fast-startup profile (lazy bean creation)
+public final class StartupBenchmark {
+    private static final String MAIN_CLASS = "com.MFP.OrderService.OrderServiceApplication";
+    private static final String PROPERTIES_LAUNCHER = "org.springframework.boot.loader.launch.PropertiesLauncher";
+
+    private final Options options;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private StartupBenchmark(Options options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark(Options.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        System.out.println("Startup benchmark with " + options);
+        Files.createDirectories(options.reportDir);
+        Map<String, List<Sample>> samples = new LinkedHashMap<>();
+        for (String variant : options.variants) {
+            samples.put(variant, new ArrayList<>());
+        }
+        for (int run = -options.warmupRuns; run < options.runs; run++) {
+            for (String variant : options.variants) {
+                Sample sample = launch(variant, run);
+                System.out.printf("%-13s run %2d: first request after %6d ms, RSS %6.1f MB%s%n", variant, run,
+                        sample.firstRequestMillis, sample.rssBytes / 1048576.0, run < 0 ? " (warmup)" : "");
+                if (run >= 0) {
+                    samples.get(variant).add(sample);
+                }
+            }
+        }
+        report(samples);
+    }
+
+    private Sample launch(String variant, int run) throws IOException, InterruptedException {
+        int port = freePort();
+        Path log = options.reportDir.resolve(variant + "-" + (run < 0 ? "warmup" + (-run) : String.valueOf(run)) + ".log");
+        List<String> command = new ArrayList<>(command(variant));
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        command.add("--logging.file.name=" + log);
+        command.add("--order.access-log.file=" + options.reportDir.resolve("access.log"));
+        URI uri = URI.create("http://localhost:" + port + options.path);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(options.reportDir.resolve(variant + ".out").toFile())
+                .start();
+        try {
+            long deadline = start + options.timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(variant + " exited with " + process.exitValue() + ", see " + log);
+                }
+                if (succeeds(uri)) {
+                    long elapsed = System.nanoTime() - start;
+                    return new Sample(TimeUnit.NANOSECONDS.toMillis(elapsed), rss(process.pid()));
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException(variant + " did not answer " + uri + " within " + options.timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private List<String> command(String variant) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String profiles = "--spring.profiles.active=" + options.profiles;
+        String classpath = options.extracted + File.pathSeparator + options.extraClasspath;
+        return switch (variant) {
+            case "jar" -> List.of(java, "-Dloader.path=" + options.extraClasspath, "-cp", options.jar.toString(),
+                    PROPERTIES_LAUNCHER, profiles);
+            case "aot-cds" -> List.of(java, "-XX:SharedArchiveFile=" + options.archive, "-Dspring.aot.enabled=true",
+                    "-cp", classpath, MAIN_CLASS, profiles);
+            case "aot-cds-lazy" -> List.of(java, "-XX:SharedArchiveFile=" + options.archive, "-Dspring.aot.enabled=true",
+                    "-cp", classpath, MAIN_CLASS, options.profiles.isEmpty() ? profiles + "fast-startup" : profiles + ",fast-startup");
+            default -> throw new IllegalArgumentException("Unknown variant " + variant);
+        };
+    }
+
+    private boolean succeeds(URI uri) throws InterruptedException {
+        try {
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() / 100 == 2;
+        } catch (IOException ex) {
+            // Connection refused until Tomcat is listening.
+            return false;
+        }
+    }
+
+    // VmRSS from /proc; other platforms report 0.
+    private static long rss(long pid) {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+            // not Linux, or the process is already gone
+        }
+        return 0;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private void report(Map<String, List<Sample>> samples) throws IOException {
+        System.out.println();
+        System.out.printf("%-13s %5s %12s %12s %12s %12s %12s%n",
+                "variant", "runs", "median ms", "min ms", "max ms", "median MB", "max MB");
+        try (PrintStream csv = new PrintStream(Files.newOutputStream(options.reportDir.resolve("startup.csv")))) {
+            csv.println("variant,run,first_request_ms,rss_bytes");
+            for (Map.Entry<String, List<Sample>> entry : samples.entrySet()) {
+                List<Sample> runs = entry.getValue();
+                for (int i = 0; i < runs.size(); i++) {
+                    csv.println(entry.getKey() + "," + i + "," + runs.get(i).firstRequestMillis + "," + runs.get(i).rssBytes);
+                }
+                long[] millis = runs.stream().mapToLong(Sample::firstRequestMillis).sorted().toArray();
+                long[] rss = runs.stream().mapToLong(Sample::rssBytes).sorted().toArray();
+                System.out.printf("%-13s %5d %12d %12d %12d %12.1f %12.1f%n", entry.getKey(), runs.size(),
+                        millis[millis.length / 2], millis[0], millis[millis.length - 1],
+                        rss[rss.length / 2] / 1048576.0, rss[rss.length - 1] / 1048576.0);
+            }
+        }
+        System.out.println("Samples written to " + options.reportDir.resolve("startup.csv").toAbsolutePath());
+    }
+
+    private record Sample(long firstRequestMillis, long rssBytes) {
+    }
+
+    // Command line options, all in --name=value form.
+    static final class Options {
+        int runs = 5;
+        int warmupRuns = 1;
+        String profiles = "test";
+        String path = "/api/order/v1/page?size=1";
+        Duration timeout = Duration.ofSeconds(120);
+        List<String> variants = List.of("jar", "aot-cds", "aot-cds-lazy");
+        Path jar;
+        Path extracted;
+        Path archive;
+        String extraClasspath = "";
+        Path reportDir = Path.of("target", "startup");
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                if (arg.isBlank()) {
+                    continue;
+                }
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                String name = arg.substring(2, arg.indexOf('='));
+                String value = arg.substring(arg.indexOf('=') + 1);
+                switch (name) {
+                    case "runs" -> options.runs = Integer.parseInt(value);
+                    case "warmup-runs" -> options.warmupRuns = Integer.parseInt(value);
+                    case "profiles" -> options.profiles = value;
+                    case "path" -> options.path = value;
+                    case "timeout" -> options.timeout = Duration.ofSeconds(Long.parseLong(value));
+                    case "variants" -> options.variants = Arrays.asList(value.split(","));
+                    case "jar" -> options.jar = Path.of(value);
+                    case "extracted" -> options.extracted = Path.of(value);
+                    case "archive" -> options.archive = Path.of(value);
+                    case "extra-classpath" -> options.extraClasspath = value;
+                    case "report-dir" -> options.reportDir = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option --" + name);
+                }
+            }
+            if (options.runs < 1) {
+                throw new IllegalArgumentException("--runs must be at least 1");
+            }
+            if (options.jar == null || options.extracted == null || options.archive == null) {
+                throw new IllegalArgumentException("--jar, --extracted and --archive are required");
+            }
+            return options;
+        }
+
+        @Override
+        public String toString() {
+            return "runs=" + runs + ", warmup-runs=" + warmupRuns + ", variants=" + variants + ", profiles=" + profiles
+                    + ", path=" + path;
+        }
+    }
+}
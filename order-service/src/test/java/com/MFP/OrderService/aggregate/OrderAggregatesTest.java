@@ -0,0 +1,117 @@
+package com.MFP.OrderService.aggregate;
+
+import com.MFP.OrderService.dto.OrderStatusAggregatesResponse;
+import com.MFP.OrderService.dto.UserOrderAggregateResponse;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.repository.OrderTotalsRow;
+import com.MFP.OrderService.shard.OrderShards;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OrderAggregatesTest {
+    private final OrderShards orderShards = new OrderShards(1, 1);
+
+    @Test
+    void shouldRebuildTotalsFromRepository() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.sumByUserAndStatus()).thenReturn(List.of(
+                new OrderTotalsRow(1L, OrderStatus.Created, 2L, new BigDecimal("30.50")),
+                new OrderTotalsRow(1L, OrderStatus.Approved, 1L, new BigDecimal("10.00")),
+                new OrderTotalsRow(2L, OrderStatus.Created, 3L, new BigDecimal("5.25"))));
+        OrderAggregates aggregates = new OrderAggregates(orderRepository, mock(ArchivedOrderRepository.class), orderShards);
+
+        aggregates.afterSingletonsInstantiated();
+
+        UserOrderAggregateResponse user = aggregates.forUser(1L);
+        assertEquals(3, user.getOrderCount());
+        assertEquals(new BigDecimal("40.50"), user.getTotalAmount());
+        OrderStatusAggregatesResponse byStatus = aggregates.byStatus();
+        assertEquals(6, byStatus.getTotalOrders());
+        assertEquals(new BigDecimal("45.75"), byStatus.getTotalAmount());
+        assertEquals(5L, byStatus.getCounts().get(OrderStatus.Created));
+        assertEquals(0L, byStatus.getCounts().get(OrderStatus.Cancelled));
+        assertEquals(new BigDecimal("35.75"), byStatus.getAmounts().get(OrderStatus.Created));
+    }
+
+    @Test
+    void shouldApplyIncrementalChanges() {
+        OrderAggregates aggregates = new OrderAggregates(mock(OrderRepository.class), mock(ArchivedOrderRepository.class), orderShards);
+
+        aggregates.add(1L, new BigDecimal("100"), OrderStatus.Created);
+        aggregates.add(1L, new BigDecimal("0.10"), OrderStatus.Created);
+        aggregates.remove(1L, new BigDecimal("100"), OrderStatus.Created);
+        aggregates.add(2L, new BigDecimal("100"), OrderStatus.Approved);
+
+        assertEquals(1, aggregates.forUser(1L).getOrderCount());
+        assertEquals(new BigDecimal("0.10"), aggregates.forUser(1L).getTotalAmount());
+        assertEquals(1L, aggregates.byStatus().getCounts().get(OrderStatus.Created));
+        assertEquals(1L, aggregates.byStatus().getCounts().get(OrderStatus.Approved));
+        assertEquals(new BigDecimal("100.10"), aggregates.byStatus().getTotalAmount());
+    }
+
+    @Test
+    void shouldKeepAmountsBeyondLongCentsExact() {
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        BigDecimal large = new BigDecimal("999999999999999999999999999999999999.99");
+        when(orderRepository.sumByUserAndStatus()).thenReturn(List.of(
+                new OrderTotalsRow(1L, OrderStatus.Created, 2L, large.add(new BigDecimal("0.01")))));
+        OrderAggregates aggregates = new OrderAggregates(orderRepository, mock(ArchivedOrderRepository.class), orderShards);
+
+        aggregates.rebuild();
+        aggregates.add(1L, large, OrderStatus.Approved);
+        aggregates.remove(1L, new BigDecimal("0.01"), OrderStatus.Created);
+
+        assertEquals(2, aggregates.forUser(1L).getOrderCount());
+        assertEquals(large.multiply(BigDecimal.valueOf(2)), aggregates.forUser(1L).getTotalAmount());
+        assertEquals(large, aggregates.byStatus().getAmounts().get(OrderStatus.Created));
+        assertEquals(large.multiply(BigDecimal.valueOf(2)), aggregates.byStatus().getTotalAmount());
+    }
+
+    @Test
+    void shouldReturnZeroTotalsForUnknownUser() {
+        OrderAggregates aggregates = new OrderAggregates(mock(OrderRepository.class), mock(ArchivedOrderRepository.class), orderShards);
+
+        UserOrderAggregateResponse user = aggregates.forUser(42L);
+
+        assertEquals(42L, user.getUserId());
+        assertEquals(0, user.getOrderCount());
+        assertEquals(new BigDecimal("0.00"), user.getTotalAmount());
+    }
+
+    @Test
+    void shouldNotLoseConcurrentUpdates() throws Exception {
+        OrderAggregates aggregates = new OrderAggregates(mock(OrderRepository.class), mock(ArchivedOrderRepository.class), orderShards);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        aggregates.add(1L, BigDecimal.ONE, OrderStatus.Created);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(40_000, aggregates.forUser(1L).getOrderCount());
+        assertEquals(40_000L, aggregates.byStatus().getCounts().get(OrderStatus.Created));
+    }
+}
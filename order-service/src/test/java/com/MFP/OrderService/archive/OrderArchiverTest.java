@@ -0,0 +1,122 @@
+package com.MFP.OrderService.archive;
+
+import com.MFP.OrderService.config.OrderArchiveProperties;
+import com.MFP.OrderService.config.ShardingProperties;
+import com.MFP.OrderService.entity.ArchivedOrderEntity;
+import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.repository.ArchivableOrder;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.repository.OrderTotalsRow;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({OrderArchiver.class, OrderArchiveProperties.class, SimpleMeterRegistry.class, OrderShards.class, ShardingProperties.class})
+@TestPropertySource(properties = {"order.archive.enabled=true", "order.archive.batch-size=2"})
+public class OrderArchiverTest {
+    @Autowired
+    private OrderArchiver orderArchiver;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldMoveTerminalOrdersLastWrittenBeforeTheCutoff() {
+        OrderEntity created = save(1L, "10.00", OrderStatus.Created);
+        OrderEntity approved = save(1L, "20.00", OrderStatus.Approved);
+        OrderEntity cancelled = save(2L, "30.00", OrderStatus.Cancelled);
+        OrderEntity rejected = save(2L, "40.00", OrderStatus.Rejected);
+        OrderEntity cancelledToo = save(3L, "50.00", OrderStatus.Cancelled);
+
+        int archived = orderArchiver.archiveShard(Instant.now().plusSeconds(1));
+
+        assertThat(archived).isEqualTo(3);
+        assertThat(orderRepository.findAll()).extracting(OrderEntity::getId).containsExactlyInAnyOrder(created.getId(), approved.getId());
+        assertThat(archivedOrderRepository.findAll()).extracting(ArchivedOrderEntity::getId)
+                .containsExactlyInAnyOrder(cancelled.getId(), rejected.getId(), cancelledToo.getId());
+        ArchivedOrderEntity copy = archivedOrderRepository.findById(rejected.getId()).orElseThrow();
+        assertThat(copy.getUserId()).isEqualTo(2L);
+        assertThat(copy.getAmount()).isEqualByComparingTo("40.00");
+        assertThat(copy.getStatus()).isEqualTo(OrderStatus.Rejected);
+        assertThat(copy.getVersion()).isEqualTo(rejected.getVersion());
+        assertThat(copy.getUpdatedAt()).isNotNull();
+        assertThat(copy.getArchivedAt()).isNotNull();
+        assertThat(meterRegistry.counter("order.archive.archived").count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepRecentlyWrittenOrders() {
+        save(1L, "10.00", OrderStatus.Cancelled);
+
+        assertThat(orderArchiver.archiveShard(Instant.now().minus(Duration.ofHours(1)))).isZero();
+        assertThat(orderArchiver.archive()).isZero();
+
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(archivedOrderRepository.count()).isZero();
+    }
+
+    @Test
+    void shouldStampBulkStatusUpdates() {
+        OrderEntity order = save(1L, "10.00", OrderStatus.Created);
+        Instant before = Instant.now().plusSeconds(1);
+        orderRepository.updateStatusIfNotCancelled(List.of(order.getId()), OrderStatus.Rejected);
+
+        assertThat(orderRepository.findArchivableForUpdate(OrderStatus.Rejected, before, Limit.of(10)))
+                .extracting(ArchivableOrder::id).containsExactly(order.getId());
+        assertThat(orderRepository.findArchivableForUpdate(OrderStatus.Rejected, Instant.now().minusSeconds(60), Limit.of(10)))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldContinueAfterTheLastUpdatedAtAndId() {
+        OrderEntity first = save(1L, "10.00", OrderStatus.Rejected);
+        OrderEntity second = save(1L, "20.00", OrderStatus.Rejected);
+        OrderEntity third = save(1L, "30.00", OrderStatus.Rejected);
+        Instant before = Instant.now().plusSeconds(1);
+
+        List<ArchivableOrder> head = orderRepository.findArchivableForUpdate(OrderStatus.Rejected, before, Limit.of(2));
+        ArchivableOrder last = head.get(1);
+        List<ArchivableOrder> tail = orderRepository.findArchivableForUpdate(OrderStatus.Rejected, before, last.updatedAt(), last.id(), Limit.of(2));
+
+        assertThat(head).extracting(ArchivableOrder::id).containsExactly(first.getId(), second.getId());
+        assertThat(tail).extracting(ArchivableOrder::id).containsExactly(third.getId());
+    }
+
+    @Test
+    void shouldSumArchivedOrders() {
+        save(2L, "30.00", OrderStatus.Cancelled);
+        save(2L, "12.50", OrderStatus.Cancelled);
+        orderArchiver.archiveShard(Instant.now().plusSeconds(1));
+
+        List<OrderTotalsRow> rows = archivedOrderRepository.sumByUserAndStatus();
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).orderCount()).isEqualTo(2);
+        assertThat(rows.get(0).amount()).isEqualByComparingTo("42.50");
+    }
+
+    private OrderEntity save(Long userId, String amount, OrderStatus status) {
+        return orderRepository.saveAndFlush(OrderEntity.builder().userId(userId).amount(new BigDecimal(amount)).status(status).build());
+    }
+}
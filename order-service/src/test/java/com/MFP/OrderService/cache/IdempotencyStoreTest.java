@@ -0,0 +1,118 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.config.IdempotencyProperties;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderAlreadyExistsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdempotencyStoreTest {
+    @Test
+    void shouldReturnOriginalResponseForRepeatedKey() {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties());
+        AtomicInteger creations = new AtomicInteger();
+
+        OrderResponse first = store.execute("key-1", "1:100", () -> create(creations));
+        OrderResponse second = store.execute("key-1", "1:100", () -> create(creations));
+
+        assertSame(first, second);
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    void shouldHoldConcurrentDuplicateUntilFirstRequestFinishes() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties());
+        AtomicInteger creations = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<OrderResponse> first = executor.submit(() -> store.execute("key-1", "1:100", () -> {
+                firstStarted.countDown();
+                await(releaseFirst);
+                return create(creations);
+            }));
+            assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+            Future<OrderResponse> duplicate = executor.submit(() -> store.execute("key-1", "1:100", () -> create(creations)));
+            assertThrows(Exception.class, () -> duplicate.get(200, TimeUnit.MILLISECONDS));
+            releaseFirst.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, creations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentOrder() {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties());
+        AtomicInteger creations = new AtomicInteger();
+        store.execute("key-1", "1:100", () -> create(creations));
+
+        OrderAlreadyExistsException exception = assertThrows(OrderAlreadyExistsException.class,
+                () -> store.execute("key-1", "2:100", () -> create(creations)));
+
+        assertEquals("Idempotency-Key key-1 was already used for a different order", exception.getMessage());
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    void shouldReleaseKeyWhenFirstRequestFails() {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties());
+        AtomicInteger creations = new AtomicInteger();
+
+        assertThrows(InvalidOrderException.class, () -> store.execute("key-1", "1:0", () -> {
+            throw new InvalidOrderException("Amount must be greater than zero");
+        }));
+        OrderResponse retried = store.execute("key-1", "1:0", () -> create(creations));
+
+        assertNotNull(retried);
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    void shouldRejectOversizedKey() {
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties());
+
+        assertThrows(InvalidOrderException.class, () -> store.execute("k".repeat(256), "1:100", () -> null));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void shouldBoundNumberOfStoredKeys() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setMaximumSize(10);
+        properties.setTtl(Duration.ofMinutes(1));
+        IdempotencyStore store = new IdempotencyStore(properties);
+        AtomicInteger creations = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            store.execute("key-" + i, "1:100", () -> create(creations));
+        }
+
+        assertTrue(store.size() <= 10);
+    }
+
+    private static OrderResponse create(AtomicInteger creations) {
+        return OrderResponse.builder().id((long) creations.incrementAndGet()).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
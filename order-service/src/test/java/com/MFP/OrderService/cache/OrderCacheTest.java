@@ -0,0 +1,82 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.config.OrderCacheProperties;
+import com.MFP.OrderService.dto.OrderResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderCacheTest {
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        OrderCache orderCache = new OrderCache(new OrderCacheProperties());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<OrderResponse> first = executor.submit(() -> orderCache.get(1L, id -> {
+                loads.incrementAndGet();
+                loaderStarted.countDown();
+                await(releaseLoader);
+                return OrderResponse.builder().id(id).build();
+            }));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<OrderResponse> second = executor.submit(() -> orderCache.get(1L, id -> {
+                loads.incrementAndGet();
+                return OrderResponse.builder().id(id).build();
+            }));
+            releaseLoader.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldKeepNewerVersionWhenUpdatesArriveOutOfOrder() {
+        OrderCache orderCache = new OrderCache(new OrderCacheProperties());
+        OrderResponse newer = OrderResponse.builder().id(1L).version(3L).build();
+
+        orderCache.put(newer);
+        orderCache.put(OrderResponse.builder().id(1L).version(2L).build());
+
+        assertSame(newer, orderCache.getIfPresent(1L));
+        OrderResponse newest = OrderResponse.builder().id(1L).version(4L).build();
+        orderCache.put(newest);
+        assertSame(newest, orderCache.getIfPresent(1L));
+    }
+
+    @Test
+    void shouldEvictWhenMaximumSizeIsExceeded() {
+        OrderCacheProperties properties = new OrderCacheProperties();
+        properties.setMaximumSize(1);
+        properties.setExpireAfterWrite(Duration.ofMinutes(1));
+        OrderCache orderCache = new OrderCache(properties);
+
+        for (long id = 1; id <= 50; id++) {
+            orderCache.put(OrderResponse.builder().id(id).build());
+        }
+
+        assertTrue(orderCache.stats().getEvictionCount() > 0);
+        assertEquals(1, orderCache.stats().getSize());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
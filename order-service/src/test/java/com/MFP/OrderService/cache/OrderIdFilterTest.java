@@ -0,0 +1,135 @@
+package com.MFP.OrderService.cache;
+
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderIdFilterTest {
+    private final OrderIdFilter orderIdFilter = new OrderIdFilter();
+
+    @Test
+    void shouldTreatEveryIdAsPossibleBeforeFirstRebuild() {
+        assertFalse(orderIdFilter.isBuilt());
+        assertTrue(orderIdFilter.mightContain(42L));
+        orderIdFilter.add(1L);
+        orderIdFilter.remove(1L);
+        assertTrue(orderIdFilter.mightContain(1L));
+    }
+
+    @Test
+    void shouldAnswerExactlyAfterRebuild() {
+        orderIdFilter.rebuild(ids -> LongStream.of(1, 2, 63, 64, 65_535, 65_536, 1_000_000).forEach(ids));
+
+        assertTrue(orderIdFilter.isBuilt());
+        for (long id : new long[]{1, 2, 63, 64, 65_535, 65_536, 1_000_000}) {
+            assertTrue(orderIdFilter.mightContain(id), "id " + id);
+        }
+        for (long id : new long[]{0, 3, 62, 65, 65_537, 999_000, 999_950, -1}) {
+            assertFalse(orderIdFilter.mightContain(id), "id " + id);
+        }
+    }
+
+    @Test
+    void shouldPassIdsNearOrAboveTheLastRebuildToTheDatabase() {
+        orderIdFilter.rebuild(ids -> LongStream.of(1, 1_000).forEach(ids));
+
+        // Another writer may have created them since, from a block it took before or after the scan.
+        for (long id : new long[]{951, 999, 1_001, 50_000_000, Long.MAX_VALUE}) {
+            assertTrue(orderIdFilter.mightContain(id), "id " + id);
+        }
+        assertFalse(orderIdFilter.mightContain(950L));
+    }
+
+    @Test
+    void shouldWidenTheBlockToAllShardBitsWhenSharded() {
+        OrderIdFilter sharded = new OrderIdFilter(new OrderShards(2, 1));
+
+        sharded.rebuild(ids -> LongStream.of(1, 10_000).forEach(ids));
+
+        assertTrue(sharded.mightContain(9_201L));
+        assertFalse(sharded.mightContain(9_200L));
+    }
+
+    @Test
+    void shouldNotMoveTheHighWaterOnAdd() {
+        orderIdFilter.rebuild(ids -> ids.accept(1_000L));
+
+        orderIdFilter.add(5_000L);
+
+        assertTrue(orderIdFilter.mightContain(4_000L));
+    }
+
+    @Test
+    void shouldFollowCreatesAndDeletes() {
+        orderIdFilter.rebuild(ids -> LongStream.of(1, 1_000).forEach(ids));
+
+        orderIdFilter.add(200_000L);
+        orderIdFilter.remove(1L);
+
+        assertTrue(orderIdFilter.mightContain(200_000L));
+        assertFalse(orderIdFilter.mightContain(1L));
+    }
+
+    @Test
+    void shouldKeepIdsAddedWhileRebuildIsScanning() {
+        orderIdFilter.rebuild(ids -> ids.accept(1L));
+
+        orderIdFilter.rebuild(ids -> {
+            // Committed after the scan read past it.
+            orderIdFilter.add(5L);
+            assertTrue(orderIdFilter.mightContain(5L));
+            ids.accept(2L);
+            ids.accept(1_000L);
+        });
+
+        assertTrue(orderIdFilter.mightContain(2L));
+        assertTrue(orderIdFilter.mightContain(5L));
+        assertFalse(orderIdFilter.mightContain(1L));
+    }
+
+    @Test
+    void shouldNotLoseConcurrentAdds() throws Exception {
+        orderIdFilter.rebuild(ids -> { });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 4; t++) {
+            int offset = t;
+            executor.submit(() -> {
+                start.await();
+                for (long id = offset; id < 200_000; id += 4) {
+                    orderIdFilter.add(id);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        for (long id = 0; id < 200_000; id++) {
+            assertTrue(orderIdFilter.mightContain(id), "id " + id);
+        }
+    }
+
+    @Test
+    void shouldCountRejectedLookups() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        orderIdFilter.bindTo(registry);
+        orderIdFilter.rebuild(ids -> LongStream.of(1, 1_000).forEach(ids));
+
+        orderIdFilter.mightContain(1L);
+        orderIdFilter.mightContain(2L);
+        orderIdFilter.mightContain(3L);
+
+        assertEquals(2.0, registry.get("order.id_filter.rejected").functionCounter().count());
+        assertTrue(registry.get("order.id_filter.memory").gauge().value() >= 8192);
+    }
+}
@@ -0,0 +1,39 @@
+package com.MFP.OrderService.config;
+
+import com.MFP.OrderService.aggregate.OrderAggregates;
+import com.MFP.OrderService.cache.IdempotencyStore;
+import com.MFP.OrderService.cache.OrderCache;
+import com.MFP.OrderService.cache.OrderIdFilterLoader;
+import com.MFP.OrderService.controller.OrderController;
+import com.MFP.OrderService.outbox.OutboxRelay;
+import com.MFP.OrderService.service.GroupCommitOrderWriter;
+import com.MFP.OrderService.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyInitializationConfigTest {
+    private final LazyInitializationExcludeFilter filter = LazyInitializationConfig.eagerOrderServiceBeans();
+
+    @Test
+    void shouldKeepStartupAndBackgroundBeansEager() {
+        for (Class<?> type : new Class<?>[]{OrderAggregates.class, OrderIdFilterLoader.class, OutboxRelay.class,
+                GroupCommitOrderWriter.class, OrderCache.class, IdempotencyStore.class}) {
+            assertTrue(isExcluded(type), type.getSimpleName());
+        }
+    }
+
+    @Test
+    void shouldLeaveRequestPathBeansLazy() {
+        assertFalse(isExcluded(OrderController.class));
+        assertFalse(isExcluded(OrderService.class));
+        assertFalse(isExcluded(null));
+    }
+
+    private boolean isExcluded(Class<?> type) {
+        return filter.isExcluded("bean", new RootBeanDefinition(), type);
+    }
+}
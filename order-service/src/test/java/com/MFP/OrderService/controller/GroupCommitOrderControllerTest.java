@@ -0,0 +1,68 @@
+package com.MFP.OrderService.controller;
+
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.exception.OrderQueueFullException;
+import com.MFP.OrderService.service.GroupCommitOrderWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = GroupCommitOrderController.class, properties = "order.group-commit.enabled=true")
+@Import(SimpleMeterRegistry.class)
+public class GroupCommitOrderControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private GroupCommitOrderWriter groupCommitOrderWriter;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldCreateOrderOnceItsGroupCommitted() throws Exception {
+        CreateOrderRequest createOrderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(25000)).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.valueOf(25000)).status(OrderStatus.Created).build();
+        when(groupCommitOrderWriter.submit(any(CreateOrderRequest.class))).thenReturn(CompletableFuture.completedFuture(orderResponse));
+
+        MvcResult result = mockMvc.perform(post("/api/order/v1/async").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenQueueIsFull() throws Exception {
+        CreateOrderRequest createOrderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(25000)).build();
+        when(groupCommitOrderWriter.submit(any(CreateOrderRequest.class))).thenThrow(new OrderQueueFullException("Order queue is full, retry later"));
+
+        mockMvc.perform(post("/api/order/v1/async").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+}
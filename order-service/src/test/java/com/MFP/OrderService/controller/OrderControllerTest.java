@@ -1,29 +1,58 @@
 package com.MFP.OrderService.controller;
 
+import com.MFP.OrderService.config.WireFormatConfig;
+import com.MFP.OrderService.dto.BatchCreateOrderResponse;
+import com.MFP.OrderService.dto.BatchOrderResult;
+import com.MFP.OrderService.dto.BulkStatusUpdateRequest;
+import com.MFP.OrderService.dto.BulkStatusUpdateResponse;
+import com.MFP.OrderService.dto.StatusUpdateResult;
 import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderCacheStatsResponse;
+import com.MFP.OrderService.dto.OrderPageResponse;
 import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.OrderSliceResponse;
+import com.MFP.OrderService.dto.OrderStatusAggregatesResponse;
 import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.dto.UserOrderAggregateResponse;
+import com.MFP.OrderService.enums.BatchItemStatus;
 import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.enums.StatusUpdateOutcome;
+import com.MFP.OrderService.exception.OrderAlreadyExistsException;
 import com.MFP.OrderService.exception.OrderNotFoundException;
+import com.MFP.OrderService.exception.OrderVersionMismatchException;
 import com.MFP.OrderService.service.OrderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OrderController.class)
+@Import({SimpleMeterRegistry.class, WireFormatConfig.class})
 public class OrderControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -31,6 +60,8 @@ public class OrderControllerTest {
     private OrderService orderService;
     @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Test
     void shouldCreateOrderSuccessfully() throws Exception {
@@ -67,7 +98,7 @@ public class OrderControllerTest {
     }
     @Test
     void shouldReturnNotFoundExceptionWhenOrderIdDoesNotExist() throws Exception {
-        when(orderService.updateOrder(any(UpdateOrderRequestDto.class),eq(1L)))
+        when(orderService.updateOrder(any(UpdateOrderRequestDto.class), eq(1L), isNull()))
                 .thenThrow(new OrderNotFoundException("Order with id=1 not found"));
         UpdateOrderRequestDto updateOrderRequestDto=
                 UpdateOrderRequestDto.builder()
@@ -158,7 +189,7 @@ public class OrderControllerTest {
                         .status(OrderStatus.Created)
                         .build();
 
-        when(orderService.updateOrder(any(UpdateOrderRequestDto.class),eq(1L))).thenReturn(orderResponse);
+        when(orderService.updateOrder(any(UpdateOrderRequestDto.class), eq(1L), isNull())).thenReturn(orderResponse);
         mockMvc.perform(put("/api/order/v1/{id}",1L)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(orderRequestDto)))
@@ -166,6 +197,282 @@ public class OrderControllerTest {
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.amount").value(14586));
 
-        verify(orderService).updateOrder(any(UpdateOrderRequestDto.class),eq(1L));
+        verify(orderService).updateOrder(any(UpdateOrderRequestDto.class), eq(1L), isNull());
+    }
+
+    @Test
+    void shouldGetOrdersPageWithNextCursor() throws Exception {
+        OrderResponse orderResponse = OrderResponse.builder().id(5L).userId(2L).amount(BigDecimal.valueOf(2458)).status(OrderStatus.Created).build();
+        when(orderService.findPage(4L, 1)).thenReturn(OrderPageResponse.builder().orders(List.of(orderResponse)).next(5L).build());
+
+        mockMvc.perform(get("/api/order/v1/page").param("after", "4").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders.size()").value(1))
+                .andExpect(jsonPath("$.orders[0].id").value(5L))
+                .andExpect(jsonPath("$.next").value(5L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamAllOrdersAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<OrderResponse> consumer = invocation.getArgument(0);
+            consumer.accept(OrderResponse.builder().id(1L).userId(2L).amount(BigDecimal.valueOf(10)).status(OrderStatus.Created).build());
+            consumer.accept(OrderResponse.builder().id(2L).userId(2L).amount(BigDecimal.valueOf(20)).status(OrderStatus.Approved).build());
+            return null;
+        }).when(orderService).streamAll(any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(get("/api/order/v1/stream")).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"userId\":2,\"amount\":10,\"status\":\"Created\"}\n"
+                                + "{\"id\":2,\"userId\":2,\"amount\":20,\"status\":\"Approved\"}\n"));
+    }
+
+    @Test
+    void shouldReturnMultiStatusWhenSomeBatchOrdersAreRejected() throws Exception {
+        List<CreateOrderRequest> requests = List.of(
+                CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(10)).build(),
+                CreateOrderRequest.builder().userId(1L).amount(BigDecimal.ZERO).build());
+        BatchCreateOrderResponse batchResponse = BatchCreateOrderResponse.builder()
+                .created(1)
+                .rejected(1)
+                .results(List.of(
+                        BatchOrderResult.builder().index(0).status(BatchItemStatus.Created)
+                                .order(OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.valueOf(10)).status(OrderStatus.Created).build())
+                                .build(),
+                        BatchOrderResult.builder().index(1).status(BatchItemStatus.Rejected).error("Amount must be greater than zero").build()))
+                .build();
+        when(orderService.createOrders(anyList())).thenReturn(batchResponse);
+
+        mockMvc.perform(post("/api/order/v1/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].order.id").value(1L))
+                .andExpect(jsonPath("$.results[1].status").value("Rejected"));
+    }
+
+    @Test
+    void shouldReturnCacheStatistics() throws Exception {
+        when(orderService.cacheStats()).thenReturn(OrderCacheStatsResponse.builder().size(3).hitCount(10).missCount(2).build());
+
+        mockMvc.perform(get("/api/order/v1/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(3))
+                .andExpect(jsonPath("$.hitCount").value(10));
+    }
+
+    @Test
+    void shouldCountHandledExceptionsByType() throws Exception {
+        when(orderService.findById(9L)).thenThrow(new OrderNotFoundException("Order with id=9 not found"));
+        double before = meterRegistry.counter("order.exceptions", "exception", "OrderNotFoundException").count();
+
+        mockMvc.perform(get("/api/order/v1/{id}", 9L)).andExpect(status().isNotFound());
+
+        assertEquals(before + 1, meterRegistry.counter("order.exceptions", "exception", "OrderNotFoundException").count());
+    }
+
+    @Test
+    void shouldPassIdempotencyKeyToService() throws Exception {
+        CreateOrderRequest createOrderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(25000)).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.valueOf(25000)).status(OrderStatus.Created).build();
+        when(orderService.createOrder(any(CreateOrderRequest.class), eq("retry-1"))).thenReturn(orderResponse);
+
+        mockMvc.perform(post("/api/order/v1").header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1L));
+        verify(orderService, never()).createOrder(any(CreateOrderRequest.class));
+    }
+
+    @Test
+    void shouldReturnConflictWhenIdempotencyKeyIsReused() throws Exception {
+        CreateOrderRequest createOrderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(25000)).build();
+        when(orderService.createOrder(any(CreateOrderRequest.class), eq("retry-1")))
+                .thenThrow(new OrderAlreadyExistsException("Idempotency-Key retry-1 was already used for a different order"));
+
+        mockMvc.perform(post("/api/order/v1").header("Idempotency-Key", "retry-1")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(createOrderRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.error").value("Order_Already_Exists"));
+    }
+
+    @Test
+    void shouldReturnAggregatesByStatus() throws Exception {
+        OrderStatusAggregatesResponse aggregates = OrderStatusAggregatesResponse.builder()
+                .totalOrders(3)
+                .totalAmount(new BigDecimal("30.00"))
+                .counts(Map.of(OrderStatus.Created, 2L, OrderStatus.Approved, 1L))
+                .amounts(Map.of(OrderStatus.Created, new BigDecimal("20.00"), OrderStatus.Approved, new BigDecimal("10.00")))
+                .build();
+        when(orderService.aggregatesByStatus()).thenReturn(aggregates);
+
+        mockMvc.perform(get("/api/order/v1/aggregates/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalOrders").value(3))
+                .andExpect(jsonPath("$.counts.Created").value(2));
+    }
+
+    @Test
+    void shouldReturnAggregatesForUser() throws Exception {
+        when(orderService.aggregatesForUser(7L)).thenReturn(UserOrderAggregateResponse.builder()
+                .userId(7L).orderCount(4).totalAmount(new BigDecimal("12.50")).build());
+
+        mockMvc.perform(get("/api/order/v1/aggregates/users/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(7))
+                .andExpect(jsonPath("$.orderCount").value(4))
+                .andExpect(jsonPath("$.totalAmount").value(12.5));
+    }
+
+    @Test
+    void shouldReturnOrdersOfUser() throws Exception {
+        OrderSliceResponse slice = OrderSliceResponse.builder()
+                .orders(List.of(OrderResponse.builder().id(3L).userId(7L).build()))
+                .page(0).size(50).hasNext(true).build();
+        when(orderService.findByUser(7L, new BigDecimal("10"), null, 0, 50)).thenReturn(slice);
+
+        mockMvc.perform(get("/api/order/v1/users/7").param("minAmount", "10").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders[0].id").value(3))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void shouldReturnOrdersWithStatus() throws Exception {
+        OrderSliceResponse slice = OrderSliceResponse.builder().orders(List.of()).page(1).size(100).hasNext(false).build();
+        when(orderService.findByStatus(OrderStatus.Approved, null, null, 1, 100)).thenReturn(slice);
+
+        mockMvc.perform(get("/api/order/v1/status/Approved").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void shouldUpdateStatusesInBulk() throws Exception {
+        BulkStatusUpdateRequest request = BulkStatusUpdateRequest.builder().ids(List.of(1L, 2L)).status(OrderStatus.Approved).build();
+        BulkStatusUpdateResponse response = BulkStatusUpdateResponse.builder()
+                .status(OrderStatus.Approved).updated(1).notFound(1).cancelled(0)
+                .results(List.of(StatusUpdateResult.builder().id(1L).outcome(StatusUpdateOutcome.Updated).build(),
+                        StatusUpdateResult.builder().id(2L).outcome(StatusUpdateOutcome.NotFound).build()))
+                .build();
+        when(orderService.updateStatuses(any(BulkStatusUpdateRequest.class))).thenReturn(response);
+
+        mockMvc.perform(post("/api/order/v1/batch/status").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[1].outcome").value("NotFound"));
+    }
+
+    @Test
+    void shouldRejectBulkStatusUpdateWithoutStatus() throws Exception {
+        mockMvc.perform(post("/api/order/v1/batch/status").contentType(MediaType.APPLICATION_JSON).content("{\"ids\":[1]}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void shouldCreateOrderWithSmilePayload() throws Exception {
+        SmileMapper smileMapper = new SmileMapper();
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+        CreateOrderRequest createOrderRequest = CreateOrderRequest.builder().userId(1L).amount(new BigDecimal("250.75")).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(1L).userId(1L).amount(new BigDecimal("250.75")).status(OrderStatus.Created).build();
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenReturn(orderResponse);
+
+        MvcResult result = mockMvc.perform(post("/api/order/v1").contentType(smile).accept(smile)
+                        .content(smileMapper.writeValueAsBytes(createOrderRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn();
+
+        OrderResponse decoded = smileMapper.readValue(result.getResponse().getContentAsByteArray(), OrderResponse.class);
+        assertEquals(1L, decoded.getId());
+        assertEquals(new BigDecimal("250.75"), decoded.getAmount());
+        assertEquals(OrderStatus.Created, decoded.getStatus());
+        verify(orderService).createOrder(argThat(request -> new BigDecimal("250.75").equals(request.getAmount())));
+    }
+
+    @Test
+    void shouldUpdateOrderWithCborPayload() throws Exception {
+        CBORMapper cborMapper = new CBORMapper();
+        UpdateOrderRequestDto updateOrderRequestDto = UpdateOrderRequestDto.builder().userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Approved).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(7L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Approved).build();
+        when(orderService.updateOrder(any(UpdateOrderRequestDto.class), eq(7L), isNull())).thenReturn(orderResponse);
+
+        MvcResult result = mockMvc.perform(put("/api/order/v1/{id}", 7L).contentType(MediaType.APPLICATION_CBOR).accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(updateOrderRequestDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        OrderResponse decoded = cborMapper.readValue(result.getResponse().getContentAsByteArray(), OrderResponse.class);
+        assertEquals(7L, decoded.getId());
+        assertEquals(OrderStatus.Approved, decoded.getStatus());
+    }
+
+    @Test
+    void shouldKeepJsonAsDefaultFormat() throws Exception {
+        when(orderService.findById(1L)).thenReturn(OrderResponse.builder().id(1L).userId(2L).amount(BigDecimal.ONE).status(OrderStatus.Created).build());
+
+        mockMvc.perform(get("/api/order/v1/{id}", 1L).accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
+    @Test
+    void shouldReturnETagAndNotModifiedForCurrentCopy() throws Exception {
+        when(orderService.findById(5L)).thenReturn(OrderResponse.builder().id(5L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Created).version(3L).build());
+
+        MvcResult result = mockMvc.perform(get("/api/order/v1/{id}", 5L))
+                .andExpect(status().isFound())
+                .andExpect(jsonPath("$.version").value(3))
+                .andReturn();
+        assertEquals(List.of("\"5-3\""), result.getResponse().getHeaders("ETag"));
+
+        MvcResult notModified = mockMvc.perform(get("/api/order/v1/{id}", 5L).header("If-None-Match", "\"5-3\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+        assertEquals(List.of("\"5-3\""), notModified.getResponse().getHeaders("ETag"));
+        assertEquals(0, notModified.getResponse().getContentLength());
+
+        mockMvc.perform(get("/api/order/v1/{id}", 5L).header("If-None-Match", "\"5-2\""))
+                .andExpect(status().isFound())
+                .andExpect(jsonPath("$.id").value(5L));
+    }
+
+    @Test
+    void shouldPassIfMatchVersionToUpdate() throws Exception {
+        UpdateOrderRequestDto updateOrderRequestDto = UpdateOrderRequestDto.builder().userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Approved).build();
+        when(orderService.updateOrder(any(UpdateOrderRequestDto.class), eq(5L), eq(3L)))
+                .thenReturn(OrderResponse.builder().id(5L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Approved).version(4L).build());
+
+        mockMvc.perform(put("/api/order/v1/{id}", 5L).header("If-Match", "\"5-3\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateOrderRequestDto)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("ETag", "\"5-4\""));
+    }
+
+    @Test
+    void shouldRejectUpdateWithStaleOrForeignIfMatch() throws Exception {
+        UpdateOrderRequestDto updateOrderRequestDto = UpdateOrderRequestDto.builder().userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Approved).build();
+        when(orderService.updateOrder(any(UpdateOrderRequestDto.class), eq(5L), eq(2L)))
+                .thenThrow(new OrderVersionMismatchException("Order with id=5 was modified, current version=3"));
+
+        mockMvc.perform(put("/api/order/v1/{id}", 5L).header("If-Match", "\"5-2\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateOrderRequestDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("Order with id=5 was modified, current version=3"));
+        for (String ifMatch : new String[]{"\"6-3\"", "W/\"5-3\"", "\"5-x\""}) {
+            mockMvc.perform(put("/api/order/v1/{id}", 5L).header("If-Match", ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(updateOrderRequestDto)))
+                    .andExpect(status().isPreconditionFailed());
+        }
+        verify(orderService, times(1)).updateOrder(any(UpdateOrderRequestDto.class), eq(5L), any());
     }
 }
@@ -0,0 +1,50 @@
+package com.MFP.OrderService.controller;
+
+import com.MFP.OrderService.export.OrderCsvExporter;
+import com.MFP.OrderService.export.OrderExportResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = OrderExportController.class)
+@Import(SimpleMeterRegistry.class)
+public class OrderExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private OrderCsvExporter orderCsvExporter;
+
+    @Test
+    void shouldStreamExportAsGzipAttachment() throws Exception {
+        when(orderCsvExporter.export(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(new byte[]{0x1f, (byte) 0x8b});
+            return new OrderExportResult(0, 1);
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/order/v1/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"orders.csv.gz\""))
+                .andExpect(content().bytes(new byte[]{0x1f, (byte) 0x8b}));
+    }
+}
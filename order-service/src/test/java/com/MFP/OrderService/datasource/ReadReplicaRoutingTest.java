@@ -0,0 +1,88 @@
+package com.MFP.OrderService.datasource;
+
+import com.MFP.OrderService.cache.OrderCache;
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two in-memory H2 databases stand in for the primary (schema from Hibernate) and replica "a" (schema and a row created
+// here, no replication); replica "b" is unreachable.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary_rr;DB_CLOSE_DELAY=-1",
+        "order.id-filter.enabled=false",
+        "order.outbox.relay-enabled=false",
+        "order.read-replicas.enabled=true",
+        "order.read-replicas.connection-timeout=250ms",
+        "order.read-replicas.nodes[0].name=a",
+        "order.read-replicas.nodes[0].url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "order.read-replicas.nodes[1].name=b",
+        "order.read-replicas.nodes[1].url=jdbc:h2:tcp://localhost:1/missing"
+})
+class ReadReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica_rr;DB_CLOSE_DELAY=-1";
+    private static final long REPLICA_ONLY_ID = 1_000_000L;
+
+    static {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists orders (id bigint primary key, user_id bigint, amount numeric(38,2), "
+                    + "status varchar(255), version bigint default 0 not null, "
+                    + "updated_at timestamp(6) with time zone default current_timestamp(6) not null)");
+            statement.execute("create table if not exists orders_archive (id bigint primary key, user_id bigint, "
+                    + "amount numeric(38,2), status varchar(255), version bigint, updated_at timestamp(6) with time zone, "
+                    + "archived_at timestamp(6) with time zone)");
+            statement.execute("merge into orders (id, user_id, amount, status, version) key (id) values ("
+                    + REPLICA_ONLY_ID + ", 7, 1.00, 'Approved', 0)");
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderCache orderCache;
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Test
+    void shouldServeReadsFromReplica() {
+        assertEquals(OrderStatus.Approved, orderService.findById(REPLICA_ONLY_ID).getStatus());
+        assertEquals(REPLICA_ONLY_ID, orderService.findPage(REPLICA_ONLY_ID - 1, 10).getOrders().get(0).getId());
+        assertTrue(orderService.findAll().stream().anyMatch(order -> order.getId() == REPLICA_ONLY_ID));
+    }
+
+    @Test
+    void shouldReadOwnWritesFromPrimary() {
+        OrderResponse created = orderService.createOrder(CreateOrderRequest.builder().userId(3L).amount(BigDecimal.TEN).build());
+        orderCache.invalidate(created.getId());
+
+        assertEquals(created.getId(), orderService.findById(created.getId()).getId());
+        // The replica never receives the row, so listings (which do not track recent writes) miss it.
+        assertTrue(orderService.findAll().stream().noneMatch(order -> order.getId().equals(created.getId())));
+    }
+
+    @Test
+    void shouldFailOverFromUnreachableReplica() {
+        for (int i = 0; i < 4; i++) {
+            orderService.findPage(0L, 10);
+        }
+
+        assertEquals(1, replicaDataSource.availableReplicas());
+        assertEquals(0, replicaDataSource.fallbacks());
+    }
+}
@@ -0,0 +1,112 @@
+package com.MFP.OrderService.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaDataSourceTest {
+    private final AtomicLong now = new AtomicLong();
+    private final DataSource primary = dataSource();
+    private final DataSource replicaA = dataSource();
+    private final DataSource replicaB = dataSource();
+    private final ReplicaDataSource replicaDataSource = new ReplicaDataSource(primary, replicas(), Duration.ofSeconds(30), now::get);
+
+    @Test
+    void shouldBalanceReadsRoundRobin() throws SQLException {
+        assertSame(replicaA.getConnection(), replicaDataSource.getConnection());
+        assertSame(replicaB.getConnection(), replicaDataSource.getConnection());
+        assertSame(replicaA.getConnection(), replicaDataSource.getConnection());
+        assertEquals(2, replicaDataSource.availableReplicas());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void shouldSkipFailedReplicaUntilCooldownEnds() throws SQLException {
+        Connection connectionB = replicaB.getConnection();
+        when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(connectionB);
+
+        replicaDataSource.getConnection();
+        assertSame(replicaA.getConnection(), replicaDataSource.getConnection());
+        assertEquals(1, replicaDataSource.availableReplicas());
+        assertSame(replicaA.getConnection(), replicaDataSource.getConnection());
+        assertSame(replicaA.getConnection(), replicaDataSource.getConnection());
+
+        now.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertEquals(2, replicaDataSource.availableReplicas());
+        replicaDataSource.getConnection();
+        assertSame(connectionB, replicaDataSource.getConnection());
+        assertEquals(0, replicaDataSource.fallbacks());
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenAllReplicasAreDown() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        assertSame(primary.getConnection(), replicaDataSource.getConnection());
+        assertSame(primary.getConnection(), replicaDataSource.getConnection());
+
+        assertEquals(0, replicaDataSource.availableReplicas());
+        assertEquals(2, replicaDataSource.fallbacks());
+        // Down replicas are not retried before the cooldown ends.
+        verify(replicaA, times(1)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+    }
+
+    @Test
+    void shouldUsePrimaryWhenPinned() throws SQLException {
+        Connection connection = PrimaryReads.call(() -> {
+            try {
+                return replicaDataSource.getConnection();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertSame(primary.getConnection(), connection);
+        assertFalse(PrimaryReads.isPinned());
+        assertSame(replicaA.getConnection(), replicaDataSource.getConnection());
+    }
+
+    @Test
+    void shouldExposeReplicaMetrics() throws SQLException {
+        when(replicaA.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("Connection refused"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        replicaDataSource.bindTo(registry);
+
+        replicaDataSource.getConnection();
+
+        assertEquals(0, registry.get("order.read_replicas.available").gauge().value());
+        assertEquals(2, registry.get("order.read_replicas.configured").gauge().value());
+        assertEquals(1, registry.get("order.read_replicas.fallbacks").functionCounter().count());
+    }
+
+    private Map<String, DataSource> replicas() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("a", replicaA);
+        replicas.put("b", replicaB);
+        return replicas;
+    }
+
+    private static DataSource dataSource() {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        try {
+            when(dataSource.getConnection()).thenReturn(connection);
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return dataSource;
+    }
+}
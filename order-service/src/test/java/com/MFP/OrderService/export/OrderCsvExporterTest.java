@@ -0,0 +1,119 @@
+package com.MFP.OrderService.export;
+
+import com.MFP.OrderService.config.ShardingProperties;
+import com.MFP.OrderService.entity.ArchivedOrderEntity;
+import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({OrderCsvExporter.class, SimpleMeterRegistry.class, OrderShards.class, ShardingProperties.class})
+// The export reads through its own cursor transactions, so the rows must be committed first.
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderCsvExporterTest {
+    @Autowired
+    private OrderCsvExporter orderCsvExporter;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldWriteHotAndArchivedOrdersAsGzipCsv() throws IOException {
+        OrderEntity first = orderRepository.save(OrderEntity.builder().userId(1L).amount(new BigDecimal("10.50")).status(OrderStatus.Created).build());
+        OrderEntity second = orderRepository.save(OrderEntity.builder().userId(2L).amount(new BigDecimal("1234567.00")).status(OrderStatus.Approved).build());
+        archivedOrderRepository.save(ArchivedOrderEntity.builder().id(second.getId() + 1000).userId(3L).amount(new BigDecimal("7.25"))
+                .status(OrderStatus.Cancelled).version(2L).build());
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            OrderExportResult result = orderCsvExporter.export(out);
+
+            assertThat(result.rows()).isEqualTo(3);
+            assertThat(lines(new ByteArrayInputStream(out.toByteArray()))).containsExactly(
+                    OrderCsvExporter.HEADER,
+                    first.getId() + ",1,10.50,Created,0",
+                    second.getId() + ",2,1234567.00,Approved,0",
+                    (second.getId() + 1000) + ",3,7.25,Cancelled,2");
+            assertThat(meterRegistry.counter("order.export.rows").count()).isEqualTo(3);
+        } finally {
+            orderRepository.deleteAll();
+            archivedOrderRepository.deleteAll();
+        }
+    }
+
+    // InnoDB takes one snapshot for the whole REPEATABLE READ transaction, so an order archived between the two
+    // cursors is seen once. H2 snapshots each table on first access instead, so only the transaction is checked here.
+    @Test
+    void shouldReadHotAndArchivedOrdersInOneRepeatableReadTransaction() {
+        OrderEntity hot = orderRepository.save(OrderEntity.builder().userId(1L).amount(new BigDecimal("10.00")).status(OrderStatus.Created).build());
+        archivedOrderRepository.save(ArchivedOrderEntity.builder().id(hot.getId() + 1000).userId(2L).amount(new BigDecimal("20.00"))
+                .status(OrderStatus.Cancelled).version(1L).build());
+        List<Object> transactions = new ArrayList<>();
+        try {
+            orderRepository.forEachOrderSnapshotIncludingArchived(order -> {
+                assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+                assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel())
+                        .isEqualTo(Connection.TRANSACTION_REPEATABLE_READ);
+                transactions.add(TransactionSynchronizationManager.getResource(entityManagerFactory));
+            });
+
+            assertThat(transactions).hasSize(2).doesNotContainNull();
+            assertThat(transactions.get(1)).isSameAs(transactions.get(0));
+        } finally {
+            orderRepository.deleteAll();
+            archivedOrderRepository.deleteAll();
+        }
+    }
+
+    @Test
+    void shouldWriteFileOnlyOnceComplete(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("orders.csv.gz");
+
+        OrderExportResult result = orderCsvExporter.export(file);
+
+        assertThat(result.rows()).isZero();
+        assertThat(lines(Files.newInputStream(file))).containsExactly(OrderCsvExporter.HEADER);
+        assertThat(dir.resolve("orders.csv.gz.part")).doesNotExist();
+    }
+
+    private static List<String> lines(InputStream compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(compressed)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.MFP.OrderService.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LineReaderTest {
+    @TempDir
+    private Path dir;
+
+    @Test
+    void shouldTrackTheOffsetAfterEachLine() throws IOException {
+        Path file = write("a,1\r\nbé,2\n\nlast");
+
+        try (LineReader reader = new LineReader(file, 0, 3)) {
+            assertThat(reader.readLine()).isEqualTo("a,1");
+            assertThat(reader.offset()).isEqualTo(5);
+            assertThat(reader.readLine()).isEqualTo("bé,2");
+            assertThat(reader.offset()).isEqualTo(11);
+            assertThat(reader.readLine()).isEmpty();
+            assertThat(reader.readLine()).isEqualTo("last");
+            assertThat(reader.offset()).isEqualTo(Files.size(file));
+            assertThat(reader.readLine()).isNull();
+        }
+    }
+
+    @Test
+    void shouldStartAtTheGivenOffset() throws IOException {
+        Path file = write("header\nfirst\nsecond\n");
+
+        try (LineReader reader = new LineReader(file, 7, 1024)) {
+            assertThat(reader.readLine()).isEqualTo("first");
+            assertThat(reader.readLine()).isEqualTo("second");
+            assertThat(reader.readLine()).isNull();
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(dir.resolve("orders.csv"), content, StandardCharsets.UTF_8);
+    }
+}
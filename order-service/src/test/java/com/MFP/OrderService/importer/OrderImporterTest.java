@@ -0,0 +1,149 @@
+package com.MFP.OrderService.importer;
+
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "order.outbox.relay-enabled=false",
+        "order.import.chunk-size=2",
+        "order.import.writer-threads=1",
+        "order.import.max-pending-chunks=1"
+})
+class OrderImporterTest {
+    @TempDir
+    private Path dir;
+    @Autowired
+    private OrderImporter orderImporter;
+    @MockitoSpyBean
+    private OrderService orderService;
+
+    @Test
+    void shouldImportValidCsvRowsAndWriteRejectedOnesToTheErrorFile() throws IOException {
+        Path input = Files.writeString(dir.resolve("orders.csv"), String.join("\n",
+                "user_id,amount,status",
+                "91001,10.50,Created",
+                "91001,0,Created",
+                ",5.00,Created",
+                "abc,5.00",
+                "91001,7.25",
+                "",
+                "91001,0.05") + "\n");
+        Path errors = dir.resolve("orders.csv.errors");
+
+        OrderImportResult result = orderImporter.importFile(input, errors, dir.resolve("orders.csv.checkpoint"));
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isEqualTo(4);
+        assertThat(ordersOf(91001L)).extracting(OrderResponse::getAmount)
+                .containsExactly(new BigDecimal("10.50"), new BigDecimal("7.25"));
+        assertThat(Files.readAllLines(errors)).containsExactlyInAnyOrder(
+                "3\tAmount must be grater than zero\t91001,0,Created",
+                "4\tUser Id must not be null\t,5.00,Created",
+                "5\tuser_id is not a number: abc\tabc,5.00",
+                "8\tAmount must be grater than zero\t91001,0.05");
+    }
+
+    @Test
+    void shouldImportNdjsonOnlyOnce() throws IOException {
+        Path input = Files.writeString(dir.resolve("orders.ndjson"), String.join("\n",
+                "{\"userId\":91002,\"amount\":12.5,\"status\":\"Approved\"}",
+                "{\"userId\":91002}",
+                "not json"));
+        Path errors = dir.resolve("orders.errors");
+        Path checkpoint = dir.resolve("orders.checkpoint");
+
+        OrderImportResult first = orderImporter.importFile(input, errors, checkpoint);
+        OrderImportResult second = orderImporter.importFile(input, errors, checkpoint);
+
+        assertThat(first.imported()).isEqualTo(1);
+        assertThat(first.rejected()).isEqualTo(2);
+        assertThat(second.imported()).isZero();
+        assertThat(ordersOf(91002L)).hasSize(1);
+        assertThat(Files.readAllLines(errors)).hasSize(2)
+                .anySatisfy(line -> assertThat(line).startsWith("2\tAmount must Not be null\t"))
+                .anySatisfy(line -> assertThat(line).startsWith("3\tMalformed JSON: "));
+    }
+
+    @Test
+    void shouldResumeFromTheCheckpointAfterAFailedChunk() throws IOException {
+        StringBuilder csv = new StringBuilder("userId,amount\n");
+        for (int i = 1; i <= 7; i++) {
+            csv.append("91003,").append(i).append(".00\n");
+        }
+        Path input = Files.writeString(dir.resolve("resume.csv"), csv);
+        Path errors = dir.resolve("resume.errors");
+        Path checkpoint = dir.resolve("resume.checkpoint");
+        doCallRealMethod()
+                .doThrow(new IllegalStateException("database unavailable"))
+                .doCallRealMethod()
+                .when(orderService).createOrders(anyList(), anyString());
+
+        IllegalStateException stopped = assertThrows(IllegalStateException.class,
+                () -> orderImporter.importFile(input, errors, checkpoint));
+        assertThat(stopped.getCause()).hasMessage("database unavailable");
+        assertThat(ordersOf(91003L)).hasSize(2);
+
+        OrderImportResult resumed = orderImporter.importFile(input, errors, checkpoint);
+
+        assertThat(resumed.imported()).isEqualTo(5);
+        assertThat(ordersOf(91003L)).extracting(order -> order.getAmount().intValue())
+                .containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(errors).isEmptyFile();
+    }
+
+    @Test
+    void shouldNotImportAChunkTwiceWhenItStoppedAfterCommitting() throws IOException {
+        Path input = Files.writeString(dir.resolve("committed.csv"), String.join("\n",
+                "userId,amount",
+                "91004,1.00",
+                "91004,0",
+                "91004,3.00") + "\n");
+        Path errors = dir.resolve("committed.errors");
+        Path checkpoint = dir.resolve("committed.checkpoint");
+        // Once the first chunk is in the database the checkpoint can no longer be saved, so the import stops after
+        // that chunk's orders and rejects are written but before the checkpoint moves past them.
+        Path blocked = dir.resolve("committed.checkpoint.tmp");
+        doAnswer(invocation -> {
+            Object response = invocation.callRealMethod();
+            Files.createDirectory(blocked);
+            return response;
+        }).when(orderService).createOrders(anyList(), anyString());
+
+        assertThrows(IllegalStateException.class, () -> orderImporter.importFile(input, errors, checkpoint));
+        assertThat(ordersOf(91004L)).hasSize(1);
+        assertThat(Files.readAllLines(errors)).hasSize(1);
+        Files.delete(blocked);
+        doCallRealMethod().when(orderService).createOrders(anyList(), anyString());
+
+        OrderImportResult resumed = orderImporter.importFile(input, errors, checkpoint);
+
+        assertThat(resumed.imported()).isEqualTo(2);
+        assertThat(resumed.rejected()).isEqualTo(1);
+        assertThat(ordersOf(91004L)).extracting(order -> order.getAmount().intValue()).containsExactly(1, 3);
+        assertThat(Files.readAllLines(errors)).containsExactly("3\tAmount must be grater than zero\t91004,0");
+    }
+
+    private List<OrderResponse> ordersOf(Long userId) {
+        return orderService.findByUser(userId, null, null, 0, 100).getOrders();
+    }
+}
@@ -0,0 +1,131 @@
+package com.MFP.OrderService.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.MFP.OrderService.config.AccessLogProperties;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AccessLogFilterTest {
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private final AccessLogProperties properties = new AccessLogProperties();
+    private final AccessLogFilter filter = new AccessLogFilter(properties);
+
+    @BeforeEach
+    void attachAppender() {
+        events.start();
+        accessLogger.addAppender(events);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        accessLogger.detachAppender(events);
+    }
+
+    @Test
+    void shouldLogOneStructuredEventPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/order/v1/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/order/v1/{id}");
+            ((MockHttpServletResponse) res).setStatus(302);
+        });
+
+        assertEquals(1, events.list.size());
+        ILoggingEvent event = events.list.get(0);
+        assertEquals(Level.INFO, event.getLevel());
+        Map<String, Object> fields = fields(event);
+        assertEquals("GET", fields.get("method"));
+        assertEquals("/api/order/v1/7", fields.get("path"));
+        assertEquals("/api/order/v1/{id}", fields.get("route"));
+        assertEquals(302, fields.get("status"));
+        assertEquals(1.0, fields.get("sampleRate"));
+        assertTrue(fields.containsKey("durationMs"));
+        assertFalse(fields.containsKey("exception"));
+    }
+
+    @Test
+    void shouldSkipUnsampledSuccessesButKeepErrors() throws Exception {
+        properties.setSuccessSampleRate(0.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/order/v1/7"), new MockHttpServletResponse(), (req, res) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/order/v1/8"), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(404));
+
+        assertEquals(1, events.list.size());
+        assertEquals(Level.WARN, events.list.get(0).getLevel());
+        assertEquals(404, fields(events.list.get(0)).get("status"));
+    }
+
+    @Test
+    void shouldAlwaysLogSlowRequests() throws Exception {
+        properties.setSuccessSampleRate(0.0);
+        properties.setSlowThreshold(Duration.ZERO);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/order/v1/7"), new MockHttpServletResponse(), (req, res) -> { });
+
+        assertEquals(1, events.list.size());
+        assertEquals(Level.WARN, events.list.get(0).getLevel());
+    }
+
+    @Test
+    void shouldLogUnhandledExceptionAsServerError() {
+        properties.setSuccessSampleRate(0.0);
+
+        assertThrows(ServletException.class, () -> filter.doFilter(new MockHttpServletRequest("POST", "/api/order/v1"),
+                new MockHttpServletResponse(), (req, res) -> {
+                    throw new ServletException("boom");
+                }));
+
+        Map<String, Object> fields = fields(events.list.get(0));
+        assertEquals(500, fields.get("status"));
+        assertEquals("ServletException", fields.get("exception"));
+    }
+
+    @Test
+    void shouldLogAsyncRequestsWhenTheyComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/order/v1/async");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        assertTrue(events.list.isEmpty());
+        response.setStatus(201);
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        assertEquals(1, events.list.size());
+        assertEquals(201, fields(events.list.get(0)).get("status"));
+    }
+
+    @Test
+    void shouldNotLogWhenDisabled() throws Exception {
+        properties.setEnabled(false);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/order/v1/7"), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(500));
+
+        assertTrue(events.list.isEmpty());
+    }
+
+    private static Map<String, Object> fields(ILoggingEvent event) {
+        return event.getKeyValuePairs().stream().collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+    }
+}
@@ -0,0 +1,44 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.config.OutboxProperties;
+import com.MFP.OrderService.dto.OrderEvent;
+import com.MFP.OrderService.enums.OrderEventType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileOrderEventPublisherTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldAppendEachBatchAsJsonLines() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        OutboxProperties properties = new OutboxProperties();
+        properties.setFile(tempDir.resolve("events").resolve("order-events.ndjson"));
+        FileOrderEventPublisher publisher = new FileOrderEventPublisher(properties, objectMapper);
+
+        publisher.publish(List.of(event(1L, OrderEventType.OrderCreated, "{\"id\":5}")));
+        publisher.publish(List.of(event(2L, OrderEventType.OrderDeleted, null)));
+
+        List<String> lines = Files.readAllLines(properties.getFile());
+        assertEquals(2, lines.size());
+        JsonNode created = objectMapper.readTree(lines.get(0));
+        assertEquals("OrderCreated", created.get("type").asText());
+        assertEquals(5, created.get("order").get("id").asInt());
+        assertTrue(objectMapper.readTree(lines.get(1)).get("order").isNull());
+    }
+
+    private static OrderEvent event(Long id, OrderEventType type, String order) {
+        return OrderEvent.builder().eventId(id).type(type).orderId(5L).occurredAt(Instant.now()).order(order).build();
+    }
+}
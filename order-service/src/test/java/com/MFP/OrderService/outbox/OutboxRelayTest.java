@@ -0,0 +1,82 @@
+package com.MFP.OrderService.outbox;
+
+import com.MFP.OrderService.config.OutboxProperties;
+import com.MFP.OrderService.config.ShardingProperties;
+import com.MFP.OrderService.dto.OrderEvent;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.enums.OrderEventType;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.repository.OutboxEventRepository;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderEventOutbox.class, OutboxRelay.class, InMemoryOrderEventPublisher.class, OutboxProperties.class, SimpleMeterRegistry.class,
+        OrderShards.class, ShardingProperties.class})
+public class OutboxRelayTest {
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @MockitoSpyBean
+    private InMemoryOrderEventPublisher publisher;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldPublishEventsInOrderAndRemoveThemFromOutbox() {
+        OrderResponse order = OrderResponse.builder().id(7L).userId(1L).amount(BigDecimal.valueOf(250)).status(OrderStatus.Created).build();
+        orderEventOutbox.record(OrderEventType.OrderCreated, 7L, order);
+        orderEventOutbox.recordAll(OrderEventType.OrderUpdated, List.of(order));
+        orderEventOutbox.record(OrderEventType.OrderDeleted, 7L, null);
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertThat(relayed).isEqualTo(3);
+        List<OrderEvent> events = publisher.events();
+        assertThat(events).extracting(OrderEvent::getType)
+                .containsExactly(OrderEventType.OrderCreated, OrderEventType.OrderUpdated, OrderEventType.OrderDeleted);
+        assertThat(events).extracting(OrderEvent::getOrderId).containsOnly(7L);
+        assertThat(events.get(0).getOrder()).contains("\"id\":7").contains("\"status\":\"Created\"");
+        assertThat(events.get(2).getOrder()).isNull();
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.counter("order.outbox.published").count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepEventsInOutboxWhenPublishingFails() {
+        orderEventOutbox.record(OrderEventType.OrderDeleted, 7L, null);
+        doThrow(new IllegalStateException("broker unavailable")).when(publisher).publish(anyList());
+
+        outboxRelay.drain();
+
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("order.outbox.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDoNothingWhenOutboxIsEmpty() {
+        assertThat(outboxRelay.relayBatch()).isZero();
+        assertThat(publisher.events()).isEmpty();
+    }
+}
@@ -8,9 +8,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.jdbc.DataJdbcTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -110,4 +114,222 @@ public class OrderRepositoryTest {
         assertThat(all.get(1).getStatus()).isEqualTo(OrderStatus.Approved);
 
     }
+
+    @Test
+    @DisplayName("Should fetch orders after the cursor in id order")
+    void shouldFindOrdersAfterCursor(){
+        List<OrderEntity> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(orderRepository.save(OrderEntity.builder()
+                    .userId((long) i)
+                    .amount(BigDecimal.valueOf(100 + i))
+                    .status(OrderStatus.Created)
+                    .build()));
+        }
+
+        List<OrderEntity> page = orderRepository.findByIdGreaterThanOrderByIdAsc(saved.get(1).getId(), Limit.of(2));
+
+        assertThat(page).extracting(OrderEntity::getId)
+                .containsExactly(saved.get(2).getId(), saved.get(3).getId());
+    }
+
+    @Test
+    @DisplayName("Should visit every order through the forward-only cursor")
+    void shouldStreamAllOrders(){
+        for (int i = 0; i < 3; i++) {
+            orderRepository.save(OrderEntity.builder()
+                    .userId(1L)
+                    .amount(BigDecimal.valueOf(10))
+                    .status(OrderStatus.Created)
+                    .build());
+        }
+        List<Long> ids = new ArrayList<>();
+        orderRepository.forEachOrder(order -> ids.add(order.getId()));
+
+        assertThat(ids).hasSize(3).isSorted();
+    }
+
+    @Test
+    @DisplayName("Should assign sequence ids to every order saved in a batch")
+    void shouldSaveOrdersInBatch(){
+        List<OrderEntity> orders = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(OrderEntity.builder()
+                    .userId(1L)
+                    .amount(BigDecimal.valueOf(10 + i))
+                    .status(OrderStatus.Created)
+                    .build());
+        }
+        List<OrderEntity> saved = orderRepository.saveAll(orders);
+        orderRepository.flush();
+
+        assertThat(saved).extracting(OrderEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(orderRepository.count()).isEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("Should update order in one statement only at the expected version and while not cancelled")
+    void shouldUpdateOrderInOneStatement(){
+        OrderEntity created = orderRepository.save(OrderEntity.builder()
+                .userId(1L)
+                .amount(BigDecimal.valueOf(100))
+                .status(OrderStatus.Created)
+                .build());
+
+        int updated = orderRepository.updateIfNotCancelled(created.getId(), 0L, null, BigDecimal.valueOf(250), OrderStatus.Approved);
+        int stale = orderRepository.updateIfNotCancelled(created.getId(), 0L, null, BigDecimal.valueOf(300), null);
+        int missing = orderRepository.updateIfNotCancelled(-1L, 0L, 2L, BigDecimal.valueOf(250), OrderStatus.Approved);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(missing).isZero();
+        OrderEntity reloaded = orderRepository.findById(created.getId()).orElseThrow();
+        assertThat(reloaded.getUserId()).isEqualTo(1L);
+        assertThat(reloaded.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(250));
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.Approved);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Should not update a cancelled order")
+    void shouldNotUpdateCancelledOrder(){
+        OrderEntity cancelled = orderRepository.save(OrderEntity.builder().userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Cancelled).build());
+
+        assertThat(orderRepository.updateIfNotCancelled(cancelled.getId(), 0L, null, BigDecimal.TEN, OrderStatus.Approved)).isZero();
+        assertThat(orderRepository.findById(cancelled.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.Cancelled);
+    }
+
+    @Test
+    @DisplayName("Should delete order in one statement only at the expected version")
+    void shouldDeleteOrderInOneStatement(){
+        OrderEntity saved = orderRepository.save(OrderEntity.builder()
+                .userId(1L)
+                .amount(BigDecimal.valueOf(100))
+                .status(OrderStatus.Created)
+                .build());
+
+        assertThat(orderRepository.deleteOrderById(saved.getId(), 1L)).isZero();
+        assertThat(orderRepository.deleteOrderById(saved.getId(), 0L)).isEqualTo(1);
+        assertThat(orderRepository.deleteOrderById(saved.getId(), 0L)).isZero();
+        assertThat(orderRepository.existsById(saved.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should read order snapshot")
+    void shouldFindSnapshot(){
+        OrderEntity saved = orderRepository.save(OrderEntity.builder()
+                .userId(4L)
+                .amount(BigDecimal.valueOf(100))
+                .status(OrderStatus.Approved)
+                .build());
+
+        Optional<OrderSnapshot> snapshot = orderRepository.findSnapshot(saved.getId());
+
+        assertThat(snapshot).isPresent();
+        assertThat(snapshot.get().userId()).isEqualTo(4L);
+        assertThat(snapshot.get().status()).isEqualTo(OrderStatus.Approved);
+        assertThat(snapshot.get().version()).isZero();
+        assertThat(orderRepository.findSnapshot(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should sum orders by user and status")
+    void shouldSumByUserAndStatus(){
+        orderRepository.saveAll(List.of(
+                OrderEntity.builder().userId(1L).amount(new BigDecimal("10.50")).status(OrderStatus.Created).build(),
+                OrderEntity.builder().userId(1L).amount(new BigDecimal("4.50")).status(OrderStatus.Created).build(),
+                OrderEntity.builder().userId(2L).amount(new BigDecimal("7.00")).status(OrderStatus.Cancelled).build()));
+
+        List<OrderTotalsRow> rows = orderRepository.sumByUserAndStatus();
+
+        assertThat(rows).hasSize(2);
+        OrderTotalsRow created = rows.stream().filter(row -> row.userId() == 1L).findFirst().orElseThrow();
+        assertThat(created.status()).isEqualTo(OrderStatus.Created);
+        assertThat(created.orderCount()).isEqualTo(2L);
+        assertThat(created.amount()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    @DisplayName("Should slice orders of one user without counting")
+    void shouldSliceOrdersByUser(){
+        for (int i = 1; i <= 5; i++) {
+            orderRepository.save(OrderEntity.builder().userId(9L).amount(BigDecimal.valueOf(i * 10)).status(OrderStatus.Created).build());
+        }
+        orderRepository.save(OrderEntity.builder().userId(8L).amount(BigDecimal.TEN).status(OrderStatus.Created).build());
+
+        Slice<OrderEntity> first = orderRepository.findByUserIdOrderByIdAsc(9L, PageRequest.of(0, 3));
+        Slice<OrderEntity> last = orderRepository.findByUserIdOrderByIdAsc(9L, PageRequest.of(1, 3));
+
+        assertThat(first.getContent()).hasSize(3).allMatch(order -> order.getUserId() == 9L);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).hasSize(2);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(first.getContent().get(0).getId()).isLessThan(first.getContent().get(1).getId());
+    }
+
+    @Test
+    @DisplayName("Should slice orders by status within an amount range")
+    void shouldSliceOrdersByStatusAndAmountRange(){
+        orderRepository.saveAll(List.of(
+                OrderEntity.builder().userId(1L).amount(BigDecimal.valueOf(300)).status(OrderStatus.Approved).build(),
+                OrderEntity.builder().userId(1L).amount(BigDecimal.valueOf(100)).status(OrderStatus.Approved).build(),
+                OrderEntity.builder().userId(2L).amount(BigDecimal.valueOf(200)).status(OrderStatus.Approved).build(),
+                OrderEntity.builder().userId(2L).amount(BigDecimal.valueOf(200)).status(OrderStatus.Created).build(),
+                OrderEntity.builder().userId(3L).amount(BigDecimal.valueOf(900)).status(OrderStatus.Approved).build()));
+
+        Slice<OrderEntity> slice = orderRepository.findByStatusAndAmountBetweenOrderByAmountAscIdAsc(
+                OrderStatus.Approved, BigDecimal.valueOf(100), BigDecimal.valueOf(300), PageRequest.of(0, 10));
+
+        assertThat(slice.getContent()).extracting(OrderEntity::getAmount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(100), BigDecimal.valueOf(200), BigDecimal.valueOf(300));
+        assertThat(slice.hasNext()).isFalse();
+        assertThat(orderRepository.findByStatusOrderByIdAsc(OrderStatus.Created, PageRequest.of(0, 10)).getContent()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should move many orders to a status in one statement except cancelled ones")
+    void shouldUpdateStatusOfManyOrdersExceptCancelled(){
+        List<OrderEntity> saved = orderRepository.saveAll(List.of(
+                OrderEntity.builder().userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Created).build(),
+                OrderEntity.builder().userId(2L).amount(BigDecimal.ONE).status(OrderStatus.Created).build(),
+                OrderEntity.builder().userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Cancelled).build()));
+        List<Long> ids = saved.stream().map(OrderEntity::getId).toList();
+
+        List<OrderSnapshot> createdForUser = orderRepository.findSnapshotsForUpdate(OrderStatus.Created, 1L, 0L, Limit.of(10));
+        int updated = orderRepository.updateStatusIfNotCancelled(ids, OrderStatus.Approved);
+
+        assertThat(createdForUser).extracting(OrderSnapshot::id).containsExactly(ids.get(0));
+        assertThat(orderRepository.findSnapshotsForUpdate(ids)).hasSize(3);
+        assertThat(updated).isEqualTo(2);
+        assertThat(orderRepository.findAllById(ids)).extracting(OrderEntity::getStatus)
+                .containsExactlyInAnyOrder(OrderStatus.Approved, OrderStatus.Approved, OrderStatus.Cancelled);
+        assertThat(orderRepository.findSnapshotsForUpdate(OrderStatus.Created, 0L, Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page through order ids in id order")
+    void shouldFindIdsAfterCursor(){
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(orderRepository.save(OrderEntity.builder().userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Created).build()).getId());
+        }
+
+        assertThat(orderRepository.findIdsAfter(0L, Limit.of(2))).isEqualTo(ids.subList(0, 2));
+        assertThat(orderRepository.findIdsAfter(ids.get(1), Limit.of(10))).isEqualTo(ids.subList(2, 5));
+        assertThat(orderRepository.findIdsAfter(ids.get(4), Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should start orders at version 0 and bump it on every update")
+    void shouldBumpVersionOnUpdates(){
+        OrderEntity saved = orderRepository.save(OrderEntity.builder().userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Created).build());
+        assertThat(saved.getVersion()).isZero();
+
+        orderRepository.updateIfNotCancelled(saved.getId(), 0L, null, BigDecimal.TEN, null);
+        orderRepository.updateStatusIfNotCancelled(List.of(saved.getId()), OrderStatus.Approved);
+
+        assertThat(orderRepository.findSnapshot(saved.getId()).orElseThrow().version()).isEqualTo(2L);
+        assertThat(orderRepository.findById(saved.getId()).orElseThrow().getVersion()).isEqualTo(2L);
+    }
 }
@@ -0,0 +1,170 @@
+package com.MFP.OrderService.service;
+
+import com.MFP.OrderService.config.GroupCommitProperties;
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderQueueFullException;
+import com.MFP.OrderService.shard.OrderShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class GroupCommitOrderWriterTest {
+    private final OrderService orderService = mock(OrderService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GroupCommitOrderWriter writer;
+
+    @AfterEach
+    void stopWriter() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void shouldCommitQueuedOrdersAsOneGroup() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        when(orderService.createValidatedOrders(anyList())).thenAnswer(invocation -> respond(invocation.getArgument(0), ids));
+        writer = start(properties(1, 100, Duration.ofMillis(300)));
+
+        List<CompletableFuture<OrderResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(writer.submit(request(i + 1L)));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1L, futures.get(i).get(5, TimeUnit.SECONDS).getUserId());
+        }
+        verify(orderService, times(1)).createValidatedOrders(anyList());
+        assertEquals(10, meterRegistry.summary("order.group_commit.batch.size").totalAmount());
+    }
+
+    @Test
+    void shouldCapGroupAtMaxBatchSize() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        when(orderService.createValidatedOrders(anyList())).thenAnswer(invocation -> respond(invocation.getArgument(0), ids));
+        writer = start(properties(1, 4, Duration.ofMillis(300)));
+
+        List<CompletableFuture<OrderResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(writer.submit(request(1L)));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        verify(orderService, atLeast(2)).createValidatedOrders(argThatHasAtMost(4));
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong ids = new AtomicLong();
+        when(orderService.createValidatedOrders(anyList())).thenAnswer(invocation -> {
+            committing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return respond(invocation.getArgument(0), ids);
+        });
+        GroupCommitProperties properties = properties(1, 1, Duration.ZERO);
+        properties.setQueueCapacity(1);
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        writer = start(properties);
+
+        CompletableFuture<OrderResponse> inFlight = writer.submit(request(1L));
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<OrderResponse> queued = writer.submit(request(2L));
+
+        assertThrows(OrderQueueFullException.class, () -> writer.submit(request(3L)));
+        assertEquals(1, meterRegistry.counter("order.group_commit.rejected").count());
+        release.countDown();
+        assertNotNull(inFlight.get(5, TimeUnit.SECONDS));
+        assertNotNull(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldRetryOrdersOneByOneWhenGroupFails() throws Exception {
+        when(orderService.createValidatedOrders(anyList())).thenThrow(new IllegalStateException("deadlock"));
+        when(orderService.createOrder(any(CreateOrderRequest.class))).thenAnswer(invocation -> {
+            CreateOrderRequest request = invocation.getArgument(0);
+            if (request.getUserId() == 2L) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return OrderResponse.builder().id(1L).userId(request.getUserId()).build();
+        });
+        writer = start(properties(1, 10, Duration.ofMillis(200)));
+
+        CompletableFuture<OrderResponse> good = writer.submit(request(1L));
+        CompletableFuture<OrderResponse> bad = writer.submit(request(2L));
+
+        assertEquals(1L, good.get(5, TimeUnit.SECONDS).getUserId());
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertEquals("constraint violation", failure.getCause().getMessage());
+    }
+
+    @Test
+    void shouldValidateBeforeQueueing() {
+        writer = start(properties(1, 10, Duration.ofMillis(5)));
+
+        assertThrows(InvalidOrderException.class, () -> writer.submit(CreateOrderRequest.builder().userId(1L).amount(BigDecimal.ZERO).build()));
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void shouldCommitQueuedOrdersBeforeStopping() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        when(orderService.createValidatedOrders(anyList())).thenAnswer(invocation -> respond(invocation.getArgument(0), ids));
+        writer = start(properties(1, 100, Duration.ofMillis(50)));
+        CompletableFuture<OrderResponse> pending = writer.submit(request(1L));
+
+        writer.stop();
+
+        assertTrue(pending.isDone());
+        assertThrows(OrderQueueFullException.class, () -> writer.submit(request(1L)));
+    }
+
+    private GroupCommitOrderWriter start(GroupCommitProperties properties) {
+        GroupCommitOrderWriter groupCommitOrderWriter = new GroupCommitOrderWriter(orderService, new OrderShards(1, 1), properties, meterRegistry);
+        groupCommitOrderWriter.start();
+        return groupCommitOrderWriter;
+    }
+
+    private static GroupCommitProperties properties(int writerThreads, int maxBatchSize, Duration maxBatchDelay) {
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setWriterThreads(writerThreads);
+        properties.setMaxBatchSize(maxBatchSize);
+        properties.setMaxBatchDelay(maxBatchDelay);
+        return properties;
+    }
+
+    private static CreateOrderRequest request(Long userId) {
+        return CreateOrderRequest.builder().userId(userId).amount(BigDecimal.TEN).build();
+    }
+
+    private static List<OrderResponse> respond(List<CreateOrderRequest> requests, AtomicLong ids) {
+        List<OrderResponse> responses = new ArrayList<>();
+        for (CreateOrderRequest request : requests) {
+            responses.add(OrderResponse.builder().id(ids.incrementAndGet()).userId(request.getUserId()).amount(request.getAmount()).build());
+        }
+        return responses;
+    }
+
+    private static List<CreateOrderRequest> argThatHasAtMost(int size) {
+        return argThat(requests -> requests.size() <= size);
+    }
+}
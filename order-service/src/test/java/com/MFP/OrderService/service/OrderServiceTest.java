@@ -1,24 +1,60 @@
 package com.MFP.OrderService.service;
 
+import com.MFP.OrderService.aggregate.OrderAggregates;
+import com.MFP.OrderService.cache.IdempotencyStore;
+import com.MFP.OrderService.cache.OrderCache;
+import com.MFP.OrderService.cache.OrderIdFilter;
+import com.MFP.OrderService.config.IdempotencyProperties;
+import com.MFP.OrderService.config.OrderCacheProperties;
+import com.MFP.OrderService.config.ReadReplicaProperties;
+import com.MFP.OrderService.datasource.PrimaryReads;
+import com.MFP.OrderService.datasource.RecentWrites;
+import com.MFP.OrderService.dto.BatchCreateOrderResponse;
+import com.MFP.OrderService.dto.BulkStatusUpdateRequest;
+import com.MFP.OrderService.dto.BulkStatusUpdateResponse;
 import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderPageResponse;
 import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.OrderSliceResponse;
 import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.entity.ArchivedOrderEntity;
 import com.MFP.OrderService.entity.OrderEntity;
+import com.MFP.OrderService.enums.BatchItemStatus;
+import com.MFP.OrderService.enums.OrderEventType;
 import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.enums.StatusUpdateOutcome;
 import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.exception.OrderAlreadyExistsException;
 import com.MFP.OrderService.exception.OrderNotFoundException;
+import com.MFP.OrderService.exception.OrderVersionMismatchException;
 import com.MFP.OrderService.mapper.OrderMapper;
+import com.MFP.OrderService.outbox.OrderEventOutbox;
+import com.MFP.OrderService.repository.ArchivedOrderRepository;
+import com.MFP.OrderService.repository.OrderBatchMarkerRepository;
 import com.MFP.OrderService.repository.OrderRepository;
+import com.MFP.OrderService.repository.OrderSnapshot;
+import com.MFP.OrderService.shard.OrderShards;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionOperations;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +65,33 @@ public class OrderServiceTest {
     private OrderService orderService;
     @Mock
     private OrderMapper orderMapper;
+    @Spy
+    private OrderCache orderCache = new OrderCache(new OrderCacheProperties());
+    @Spy
+    private IdempotencyStore idempotencyStore = new IdempotencyStore(new IdempotencyProperties());
+    @Mock
+    private OrderEventOutbox orderEventOutbox;
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+    @Mock
+    private OrderAggregates orderAggregates;
+    @Spy
+    private OrderIdFilter orderIdFilter = new OrderIdFilter();
+    @Spy
+    private RecentWrites recentWrites = new RecentWrites(readReplicasEnabled());
+    @Spy
+    private OrderShards orderShards = new OrderShards(1, 1);
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Mock
+    private OrderBatchMarkerRepository orderBatchMarkerRepository;
+
+    private static ReadReplicaProperties readReplicasEnabled(){
+        ReadReplicaProperties properties = new ReadReplicaProperties();
+        properties.setEnabled(true);
+        return properties;
+    }
+
     @Test
     void shouldCreatedOrderSuccessfully(){
         CreateOrderRequest orderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(3000)).build();
@@ -68,25 +131,32 @@ public class OrderServiceTest {
         Long orderId = 1L;
 
         UpdateOrderRequestDto updateOrderRequest = UpdateOrderRequestDto.builder().amount(BigDecimal.valueOf(5000)).status(OrderStatus.Approved).build();
-        OrderEntity savedOrder =
-            OrderEntity.builder()
-                    .id(orderId)
-                    .userId(1L)
-                    .amount(BigDecimal.valueOf(5000))
-                    .status(OrderStatus.Approved)
-                    .build();
-        OrderResponse response = OrderResponse.builder().id(orderId).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Approved).build();
-        OrderEntity existingOrder = OrderEntity.builder().id(orderId).userId(1L).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Created).build();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(existingOrder));
-        when(orderRepository.save(existingOrder)).thenReturn(savedOrder);
-        when(orderMapper.toResponse(savedOrder)).thenReturn(response);
+        when(orderRepository.findSnapshot(orderId)).thenReturn(snapshot(orderId, 1L, BigDecimal.valueOf(100), OrderStatus.Created));
+        when(orderRepository.updateIfNotCancelled(orderId, 0L, null, BigDecimal.valueOf(5000), OrderStatus.Approved)).thenReturn(1);
         OrderResponse updatedOrder = orderService.updateOrder(updateOrderRequest, orderId);
         assertNotNull(updatedOrder);
+        assertEquals(1L,updatedOrder.getUserId());
         assertEquals(OrderStatus.Approved,updatedOrder.getStatus());
         assertEquals(BigDecimal.valueOf(5000),updatedOrder.getAmount());
 
-        verify(orderRepository).findById(orderId);
-        verify(orderMapper).updateEntity(updateOrderRequest,existingOrder);
+        verify(orderRepository).updateIfNotCancelled(orderId, 0L, null, BigDecimal.valueOf(5000), OrderStatus.Approved);
+        verify(orderRepository, never()).save(any());
+    }
+    @Test
+    void shouldUpdateTheOrderWithoutReadingItBack(){
+        UpdateOrderRequestDto updateOrderRequest = UpdateOrderRequestDto.builder().userId(3L).amount(BigDecimal.valueOf(700)).status(OrderStatus.Rejected).build();
+        when(orderRepository.findSnapshot(1L)).thenReturn(snapshot(1L, 1L, BigDecimal.valueOf(100), OrderStatus.Created));
+        when(orderRepository.updateIfNotCancelled(1L, 0L, 3L, BigDecimal.valueOf(700), OrderStatus.Rejected)).thenReturn(1);
+
+        OrderResponse updatedOrder = orderService.updateOrder(updateOrderRequest, 1L);
+
+        assertEquals(1L, updatedOrder.getId());
+        assertEquals(3L, updatedOrder.getUserId());
+        assertEquals(OrderStatus.Rejected, updatedOrder.getStatus());
+        verify(orderRepository).findSnapshot(1L);
+        verify(orderRepository).updateIfNotCancelled(1L, 0L, 3L, BigDecimal.valueOf(700), OrderStatus.Rejected);
+        verifyNoMoreInteractions(orderRepository);
+        verifyNoInteractions(orderMapper);
     }
 
     @Test
@@ -97,15 +167,23 @@ public class OrderServiceTest {
                 .amount(BigDecimal.valueOf(5000))
                 .status(OrderStatus.Approved)
                 .build();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderRepository.findSnapshot(orderId)).thenReturn(Optional.empty());
         OrderNotFoundException orderNotFoundException = assertThrows(OrderNotFoundException.class, () -> orderService.updateOrder(requestDto, orderId));
         assertEquals("Order with id=1 not found",orderNotFoundException.getMessage());
 
-        verify(orderRepository).findById(orderId);
+        verify(orderRepository).findSnapshot(orderId);
+        verify(orderRepository, never()).updateIfNotCancelled(any(), any(), any(), any(), any());
         verifyNoInteractions(orderMapper);
 
     }
     @Test
+    void shouldRejectAmountBeyondColumnRange(){
+        CreateOrderRequest orderRequest = CreateOrderRequest.builder().userId(1L).amount(new BigDecimal("1e36")).build();
+        InvalidOrderException invalidOrderException = assertThrows(InvalidOrderException.class, () -> orderService.createOrder(orderRequest));
+        assertEquals("Amount must be at most 999999999999999999999999999999999999.99", invalidOrderException.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+    @Test
     void shouldThrowExceptionWhenUpdateOrderAmountIsInvalid(){
         UpdateOrderRequestDto updateOrderRequestDto = UpdateOrderRequestDto.builder().userId(1L).amount(BigDecimal.ZERO).build();
         InvalidOrderException invalidOrderException = assertThrows(InvalidOrderException.class, () -> orderService.updateOrder(updateOrderRequestDto, 1L));
@@ -117,11 +195,10 @@ public class OrderServiceTest {
 @Test
     void shouldThrowExceptionWhenWhenTryToUpdateTheCancelledOrder(){
         UpdateOrderRequestDto updateOrderRequestDto = UpdateOrderRequestDto.builder().userId(1L).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Cancelled).build();
-        OrderEntity orderEntity = OrderEntity.builder().id(1L).userId(1L).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Cancelled).build();
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderEntity));
+        when(orderRepository.findSnapshot(1L)).thenReturn(snapshot(1L, 1L, BigDecimal.valueOf(5000), OrderStatus.Cancelled));
         InvalidOrderException invalidOrderException = assertThrows(InvalidOrderException.class, () -> orderService.updateOrder(updateOrderRequestDto, 1L));
         assertEquals("Cancelled Order cannot be updated",invalidOrderException.getMessage());
-        verify(orderRepository).findById(1L);
+        verify(orderRepository, never()).updateIfNotCancelled(any(), any(), any(), any(), any());
         verifyNoInteractions(orderMapper);
 
     }
@@ -130,8 +207,8 @@ public class OrderServiceTest {
     @Test
     void shouldDeleteTheOrder(){
         Long orderId = 1L;
-        OrderEntity foundedOrder = OrderEntity.builder().id(orderId).userId(1L).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Created).build();
-        when(orderRepository.findById(orderId)).thenReturn(Optional.of(foundedOrder));
+        when(orderRepository.findSnapshot(orderId)).thenReturn(snapshot(orderId, 1L, BigDecimal.valueOf(5000), OrderStatus.Created));
+        when(orderRepository.deleteOrderById(orderId, 0L)).thenReturn(1);
         String deleted = orderService.deleteById(orderId);
         assertNotNull(deleted);
         assertEquals(deleted,"Order deleted successfully with orderId=" +orderId);
@@ -139,14 +216,67 @@ public class OrderServiceTest {
     }
     @Test
     void shouldDeleteThrowExceptionWhenOrderIdNotFound(){
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.empty());
         OrderNotFoundException orderNotFoundException = assertThrows(OrderNotFoundException.class, () -> orderService.deleteById(1L));
         assertEquals(orderNotFoundException.getMessage(),"Order with id=1 not found");
 
-        verify(orderRepository).findById(1L);
+        verify(orderRepository, never()).deleteOrderById(1L, 0L);
         verifyNoInteractions(orderMapper);
     }
     @Test
+    void shouldGiveUpUpdateWhenOrderKeepsChanging(){
+        when(orderRepository.findSnapshot(1L)).thenReturn(snapshot(1L, 1L, BigDecimal.ONE, OrderStatus.Created));
+        when(orderRepository.updateIfNotCancelled(1L, 0L, null, BigDecimal.TEN, null)).thenReturn(0);
+
+        OrderVersionMismatchException exception = assertThrows(OrderVersionMismatchException.class,
+                () -> orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).build(), 1L));
+
+        assertEquals("Order with id=1 was modified concurrently, try again", exception.getMessage());
+        verify(orderRepository, times(OrderService.MAX_WRITE_ATTEMPTS)).findSnapshot(1L);
+        verifyNoInteractions(orderEventOutbox);
+        verifyNoInteractions(orderAggregates);
+    }
+    @Test
+    void shouldUpdateCachedOrderWithOneStatement(){
+        orderCache.put(OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Created).version(2L).build());
+        when(orderRepository.updateIfNotCancelled(1L, 2L, null, BigDecimal.TEN, null)).thenReturn(1);
+
+        OrderResponse updatedOrder = orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).build(), 1L, 2L);
+
+        assertEquals(3L, updatedOrder.getVersion());
+        assertEquals(OrderStatus.Created, updatedOrder.getStatus());
+        verify(orderRepository).updateIfNotCancelled(1L, 2L, null, BigDecimal.TEN, null);
+        verifyNoMoreInteractions(orderRepository);
+        verify(orderAggregates).remove(1L, BigDecimal.ONE, OrderStatus.Created);
+        verify(orderAggregates).add(1L, BigDecimal.TEN, OrderStatus.Created);
+    }
+    @Test
+    void shouldReadOrderWhenCachedVersionIsStale(){
+        orderCache.put(OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Created).version(2L).build());
+        when(orderRepository.updateIfNotCancelled(1L, 2L, null, BigDecimal.TEN, null)).thenReturn(0);
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.of(new OrderSnapshot(1L, 1L, BigDecimal.valueOf(2), OrderStatus.Approved, 3L)));
+        when(orderRepository.updateIfNotCancelled(1L, 3L, null, BigDecimal.TEN, null)).thenReturn(1);
+
+        OrderResponse updatedOrder = orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).build(), 1L);
+
+        assertEquals(4L, updatedOrder.getVersion());
+        assertEquals(OrderStatus.Approved, updatedOrder.getStatus());
+        verify(orderAggregates).remove(1L, BigDecimal.valueOf(2), OrderStatus.Approved);
+        verify(orderAggregates, never()).remove(1L, BigDecimal.ONE, OrderStatus.Created);
+        verify(orderEventOutbox, times(1)).record(OrderEventType.OrderUpdated, 1L, updatedOrder);
+    }
+    @Test
+    void shouldDeleteCachedOrderWithOneStatement(){
+        orderCache.put(OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Cancelled).version(2L).build());
+        when(orderRepository.deleteOrderById(1L, 2L)).thenReturn(1);
+
+        orderService.deleteById(1L);
+
+        verify(orderRepository).deleteOrderById(1L, 2L);
+        verifyNoMoreInteractions(orderRepository);
+        verify(orderAggregates).remove(1L, BigDecimal.ONE, OrderStatus.Cancelled);
+    }
+    @Test
     void shouldGetOrderById(){
         OrderEntity orderEntity = OrderEntity.builder().id(1L).userId(2L).amount(BigDecimal.valueOf(35000)).status(OrderStatus.Created).build();
         OrderResponse orderResponse = OrderResponse.builder().id(1L).userId(2L).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Created).build();
@@ -183,4 +313,475 @@ public class OrderServiceTest {
         verify(orderRepository).findAll();
 
     }
+    @Test
+    void shouldReturnPageWithNextCursorWhenMoreOrdersExist(){
+        OrderEntity orderEntity1 = OrderEntity.builder().id(11L).userId(1L).amount(BigDecimal.valueOf(2500)).status(OrderStatus.Created).build();
+        OrderEntity orderEntity2 = OrderEntity.builder().id(12L).userId(2L).amount(BigDecimal.valueOf(3500)).status(OrderStatus.Approved).build();
+        OrderEntity orderEntity3 = OrderEntity.builder().id(13L).userId(2L).amount(BigDecimal.valueOf(4500)).status(OrderStatus.Approved).build();
+        when(orderRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(Arrays.asList(orderEntity1, orderEntity2, orderEntity3));
+        when(orderMapper.toResponse(orderEntity1)).thenReturn(OrderResponse.builder().id(11L).build());
+        when(orderMapper.toResponse(orderEntity2)).thenReturn(OrderResponse.builder().id(12L).build());
+
+        OrderPageResponse page = orderService.findPage(10L, 2);
+        assertEquals(2, page.getOrders().size());
+        assertEquals(12L, page.getNext());
+        verify(orderMapper, never()).toResponse(orderEntity3);
+    }
+    @Test
+    void shouldReturnLastPageWithoutNextCursor(){
+        OrderEntity orderEntity1 = OrderEntity.builder().id(1L).userId(1L).amount(BigDecimal.valueOf(2500)).status(OrderStatus.Created).build();
+        when(orderRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(101))).thenReturn(List.of(orderEntity1));
+        when(orderMapper.toResponse(orderEntity1)).thenReturn(OrderResponse.builder().id(1L).build());
+
+        OrderPageResponse page = orderService.findPage(null, 100);
+        assertEquals(1, page.getOrders().size());
+        assertNull(page.getNext());
+    }
+    @Test
+    void shouldThrowExceptionWhenPageSizeIsInvalid(){
+        InvalidOrderException invalidOrderException = assertThrows(InvalidOrderException.class, () -> orderService.findPage(null, 0));
+        assertEquals("Page size must be between 1 and 1000", invalidOrderException.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+    @Test
+    void shouldCreateValidOrdersInBatchAndRejectInvalidOnes(){
+        CreateOrderRequest validRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(100)).build();
+        CreateOrderRequest invalidRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.ZERO).build();
+        OrderEntity entity = OrderEntity.builder().userId(1L).amount(BigDecimal.valueOf(100)).build();
+        OrderEntity savedEntity = OrderEntity.builder().id(7L).userId(1L).amount(BigDecimal.valueOf(100)).status(OrderStatus.Created).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(7L).userId(1L).amount(BigDecimal.valueOf(100)).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(validRequest)).thenReturn(entity);
+        when(orderRepository.saveAll(List.of(entity))).thenReturn(List.of(savedEntity));
+        when(orderMapper.toResponse(savedEntity)).thenReturn(orderResponse);
+
+        BatchCreateOrderResponse response = orderService.createOrders(Arrays.asList(invalidRequest, validRequest));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(BatchItemStatus.Rejected, response.getResults().get(0).getStatus());
+        assertEquals("Amount must be greater than zero", response.getResults().get(0).getError());
+        assertEquals(BatchItemStatus.Created, response.getResults().get(1).getStatus());
+        assertEquals(7L, response.getResults().get(1).getOrder().getId());
+        assertEquals(OrderStatus.Created, entity.getStatus());
+    }
+    @Test
+    void shouldWriteBatchMarkerWithKeyedBatch(){
+        CreateOrderRequest request = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.TEN).build();
+        OrderEntity entity = OrderEntity.builder().userId(1L).amount(BigDecimal.TEN).build();
+        OrderEntity savedEntity = OrderEntity.builder().id(7L).userId(1L).amount(BigDecimal.TEN).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(request)).thenReturn(entity);
+        when(orderRepository.saveAll(List.of(entity))).thenReturn(List.of(savedEntity));
+        when(orderMapper.toResponse(savedEntity)).thenReturn(OrderResponse.builder().id(7L).build());
+
+        BatchCreateOrderResponse response = orderService.createOrders(List.of(request), "import:0");
+
+        assertEquals(1, response.getCreated());
+        verify(orderBatchMarkerRepository).save(argThat(marker -> marker.getBatchKey().equals("import:0") && marker.getOrders() == 1));
+    }
+    @Test
+    void shouldSkipShardThatAlreadyHasTheBatchMarker(){
+        CreateOrderRequest request = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.TEN).build();
+        CreateOrderRequest invalidRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.ZERO).build();
+        when(orderMapper.toEntity(request)).thenReturn(OrderEntity.builder().userId(1L).amount(BigDecimal.TEN).build());
+        when(orderBatchMarkerRepository.existsById("import:0")).thenReturn(true);
+
+        BatchCreateOrderResponse response = orderService.createOrders(List.of(request, invalidRequest), "import:0");
+
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(BatchItemStatus.Created, response.getResults().get(0).getStatus());
+        assertNull(response.getResults().get(0).getOrder());
+        verify(orderRepository, never()).saveAll(anyList());
+        verify(orderBatchMarkerRepository, never()).save(any());
+        verifyNoInteractions(orderEventOutbox);
+        verifyNoInteractions(orderAggregates);
+    }
+    @Test
+    void shouldThrowExceptionWhenBatchIsEmpty(){
+        InvalidOrderException invalidOrderException = assertThrows(InvalidOrderException.class, () -> orderService.createOrders(List.of()));
+        assertEquals("Batch must contain between 1 and 1000 orders", invalidOrderException.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+    @Test
+    void shouldServeRepeatedFindByIdFromCache(){
+        OrderEntity orderEntity = OrderEntity.builder().id(1L).userId(2L).amount(BigDecimal.valueOf(35000)).status(OrderStatus.Created).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(1L).userId(2L).amount(BigDecimal.valueOf(35000)).status(OrderStatus.Created).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(orderEntity));
+        when(orderMapper.toResponse(orderEntity)).thenReturn(orderResponse);
+
+        orderService.findById(1L);
+        OrderResponse cached = orderService.findById(1L);
+
+        assertSame(orderResponse, cached);
+        verify(orderRepository, times(1)).findById(1L);
+        assertEquals(1, orderService.cacheStats().getHitCount());
+        assertEquals(1, orderService.cacheStats().getMissCount());
+    }
+    @Test
+    void shouldNotCacheMissingOrders(){
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(OrderNotFoundException.class, () -> orderService.findById(1L));
+        assertThrows(OrderNotFoundException.class, () -> orderService.findById(1L));
+        verify(orderRepository, times(2)).findById(1L);
+    }
+    @Test
+    void shouldInvalidateCachedOrderOnDelete(){
+        orderCache.put(OrderResponse.builder().id(1L).build());
+        when(orderRepository.findSnapshot(1L)).thenReturn(snapshot(1L, 1L, BigDecimal.valueOf(100), OrderStatus.Created));
+        when(orderRepository.deleteOrderById(1L, 0L)).thenReturn(1);
+
+        orderService.deleteById(1L);
+
+        verify(orderCache).invalidate(1L);
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(OrderNotFoundException.class, () -> orderService.findById(1L));
+    }
+    @Test
+    void shouldRefreshCachedOrderOnUpdate(){
+        UpdateOrderRequestDto updateOrderRequest = UpdateOrderRequestDto.builder().userId(1L).amount(BigDecimal.valueOf(5000)).status(OrderStatus.Approved).build();
+        orderCache.put(OrderResponse.builder().id(1L).amount(BigDecimal.valueOf(100)).status(OrderStatus.Created).build());
+        when(orderRepository.findSnapshot(1L)).thenReturn(snapshot(1L, 1L, BigDecimal.valueOf(100), OrderStatus.Created));
+        when(orderRepository.updateIfNotCancelled(1L, 0L, 1L, BigDecimal.valueOf(5000), OrderStatus.Approved)).thenReturn(1);
+
+        OrderResponse updatedResponse = orderService.updateOrder(updateOrderRequest, 1L);
+
+        assertSame(updatedResponse, orderService.findById(1L));
+        assertEquals(OrderStatus.Approved, orderService.findById(1L).getStatus());
+    }
+    @Test
+    void shouldReplayOrderForRepeatedIdempotencyKey(){
+        CreateOrderRequest orderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(3000)).build();
+        OrderEntity entity = OrderEntity.builder().userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        OrderEntity savedEntity = OrderEntity.builder().id(10L).userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(10L).userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(orderRequest)).thenReturn(entity);
+        when(orderRepository.save(entity)).thenReturn(savedEntity);
+        when(orderMapper.toResponse(savedEntity)).thenReturn(orderResponse);
+
+        OrderResponse first = orderService.createOrder(orderRequest, "retry-1");
+        CreateOrderRequest retry = CreateOrderRequest.builder().userId(1L).amount(new BigDecimal("3000.00")).build();
+        OrderResponse replayed = orderService.createOrder(retry, "retry-1");
+
+        assertSame(first, replayed);
+        verify(orderRepository, times(1)).save(any());
+        verify(orderRepository, never()).findById(any());
+    }
+    @Test
+    void shouldRejectIdempotencyKeyReusedForDifferentOrder(){
+        CreateOrderRequest orderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(3000)).build();
+        OrderEntity entity = OrderEntity.builder().userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        OrderEntity savedEntity = OrderEntity.builder().id(10L).userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(orderRequest)).thenReturn(entity);
+        when(orderRepository.save(entity)).thenReturn(savedEntity);
+        when(orderMapper.toResponse(savedEntity)).thenReturn(OrderResponse.builder().id(10L).build());
+        orderService.createOrder(orderRequest, "retry-1");
+
+        CreateOrderRequest otherRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(4000)).build();
+        assertThrows(OrderAlreadyExistsException.class, () -> orderService.createOrder(otherRequest, "retry-1"));
+        verify(orderRepository, times(1)).save(any());
+    }
+    @Test
+    void shouldRecordOutboxEventForEachOrderChange(){
+        CreateOrderRequest orderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.valueOf(3000)).build();
+        OrderEntity entity = OrderEntity.builder().userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        OrderEntity savedEntity = OrderEntity.builder().id(10L).userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        OrderResponse created = OrderResponse.builder().id(10L).userId(1L).amount(BigDecimal.valueOf(3000)).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(orderRequest)).thenReturn(entity);
+        when(orderRepository.save(entity)).thenReturn(savedEntity);
+        when(orderMapper.toResponse(savedEntity)).thenReturn(created);
+        UpdateOrderRequestDto updateRequest = UpdateOrderRequestDto.builder().userId(1L).amount(BigDecimal.valueOf(10)).status(OrderStatus.Approved).build();
+        when(orderRepository.findSnapshot(10L)).thenReturn(snapshot(10L, 1L, BigDecimal.valueOf(3000), OrderStatus.Created));
+        when(orderRepository.updateIfNotCancelled(10L, 0L, 1L, BigDecimal.valueOf(10), OrderStatus.Approved)).thenReturn(1);
+        when(orderRepository.deleteOrderById(10L, 1L)).thenReturn(1);
+
+        orderService.createOrder(orderRequest);
+        OrderResponse updated = orderService.updateOrder(updateRequest, 10L);
+        orderService.deleteById(10L);
+
+        verify(orderEventOutbox).record(OrderEventType.OrderCreated, 10L, created);
+        verify(orderEventOutbox).record(OrderEventType.OrderUpdated, 10L, updated);
+        verify(orderEventOutbox).record(OrderEventType.OrderDeleted, 10L, null);
+        verify(transactionOperations, times(3)).execute(any());
+    }
+    @Test
+    void shouldNotRecordOutboxEventWhenChangeFails(){
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.empty());
+        UpdateOrderRequestDto updateRequest = UpdateOrderRequestDto.builder().userId(1L).amount(BigDecimal.valueOf(10)).status(OrderStatus.Approved).build();
+
+        assertThrows(OrderNotFoundException.class, () -> orderService.deleteById(1L));
+        assertThrows(OrderNotFoundException.class, () -> orderService.updateOrder(updateRequest, 1L));
+
+        verifyNoInteractions(orderEventOutbox);
+        verifyNoInteractions(orderAggregates);
+    }
+    @Test
+    void shouldMoveAggregatesFromPreviousToNewValues(){
+        when(orderRepository.findSnapshot(5L)).thenReturn(snapshot(5L, 1L, BigDecimal.valueOf(100), OrderStatus.Created));
+        UpdateOrderRequestDto updateRequest = UpdateOrderRequestDto.builder().userId(2L).amount(BigDecimal.valueOf(250)).status(OrderStatus.Approved).build();
+        when(orderRepository.updateIfNotCancelled(5L, 0L, 2L, BigDecimal.valueOf(250), OrderStatus.Approved)).thenReturn(1);
+        when(orderRepository.deleteOrderById(5L, 1L)).thenReturn(1);
+
+        orderService.updateOrder(updateRequest, 5L);
+        orderService.deleteById(5L);
+
+        InOrder inOrder = inOrder(orderAggregates);
+        inOrder.verify(orderAggregates).remove(1L, BigDecimal.valueOf(100), OrderStatus.Created);
+        inOrder.verify(orderAggregates).add(2L, BigDecimal.valueOf(250), OrderStatus.Approved);
+        inOrder.verify(orderAggregates).remove(2L, BigDecimal.valueOf(250), OrderStatus.Approved);
+    }
+
+    private static Optional<OrderSnapshot> snapshot(Long id, Long userId, BigDecimal amount, OrderStatus status){
+        return Optional.of(new OrderSnapshot(id, userId, amount, status, 0L));
+    }
+    @Test
+    void shouldSliceOrdersByUserOrderedById(){
+        OrderEntity orderEntity = OrderEntity.builder().id(3L).userId(7L).amount(BigDecimal.TEN).status(OrderStatus.Created).build();
+        when(orderRepository.findByUserIdOrderByIdAsc(7L, PageRequest.of(2, 1))).thenReturn(new SliceImpl<>(List.of(orderEntity), PageRequest.of(2, 1), true));
+        when(orderMapper.toResponse(orderEntity)).thenReturn(OrderResponse.builder().id(3L).build());
+
+        OrderSliceResponse slice = orderService.findByUser(7L, null, null, 2, 1);
+
+        assertEquals(1, slice.getOrders().size());
+        assertEquals(2, slice.getPage());
+        assertTrue(slice.isHasNext());
+        verify(orderRepository, never()).count();
+    }
+    @Test
+    void shouldFillOpenAmountBoundWhenSlicingByStatus(){
+        when(orderRepository.findByStatusAndAmountBetweenOrderByAmountAscIdAsc(OrderStatus.Approved, BigDecimal.valueOf(50), OrderService.MAX_AMOUNT, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        OrderSliceResponse slice = orderService.findByStatus(OrderStatus.Approved, BigDecimal.valueOf(50), null, 0, 10);
+
+        assertTrue(slice.getOrders().isEmpty());
+        assertFalse(slice.isHasNext());
+    }
+    @Test
+    void shouldRejectInvalidSliceRequests(){
+        assertThrows(InvalidOrderException.class, () -> orderService.findByUser(1L, null, null, 0, 0));
+        assertThrows(InvalidOrderException.class, () -> orderService.findByUser(1L, null, null, -1, 10));
+        InvalidOrderException exception = assertThrows(InvalidOrderException.class,
+                () -> orderService.findByStatus(OrderStatus.Created, BigDecimal.TEN, BigDecimal.ONE, 0, 10));
+        assertEquals("minAmount must not be greater than maxAmount", exception.getMessage());
+        InvalidOrderException deep = assertThrows(InvalidOrderException.class,
+                () -> orderService.findByStatus(OrderStatus.Created, null, null, Integer.MAX_VALUE, 1000));
+        assertEquals("Page * size must be at most 10000, use the keyset page for deeper reads", deep.getMessage());
+        assertThrows(InvalidOrderException.class, () -> orderService.findByUser(1L, null, null, 10_001, 1));
+        verifyNoInteractions(orderRepository);
+    }
+    @Test
+    void shouldMoveOrdersInBulkAndReportOutcomePerId(){
+        when(orderRepository.findSnapshotsForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new OrderSnapshot(1L, 10L, BigDecimal.TEN, OrderStatus.Created, 0L),
+                new OrderSnapshot(3L, 11L, BigDecimal.ONE, OrderStatus.Cancelled, 0L)));
+        when(orderRepository.updateStatusIfNotCancelled(List.of(1L), OrderStatus.Approved)).thenReturn(1);
+        BulkStatusUpdateRequest request = BulkStatusUpdateRequest.builder().ids(List.of(1L, 2L, 3L, 1L)).status(OrderStatus.Approved).build();
+
+        BulkStatusUpdateResponse response = orderService.updateStatuses(request);
+
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getNotFound());
+        assertEquals(1, response.getCancelled());
+        assertEquals(List.of(StatusUpdateOutcome.Updated, StatusUpdateOutcome.NotFound, StatusUpdateOutcome.Cancelled),
+                response.getResults().stream().map(result -> result.getOutcome()).toList());
+        verify(orderAggregates).remove(10L, BigDecimal.TEN, OrderStatus.Created);
+        verify(orderAggregates).add(10L, BigDecimal.TEN, OrderStatus.Approved);
+        verify(orderEventOutbox).recordAll(eq(OrderEventType.OrderUpdated), argThat(orders -> orders.size() == 1));
+        verify(orderCache).invalidate(1L);
+        verify(orderCache, never()).invalidate(3L);
+    }
+    @Test
+    void shouldSplitBulkUpdateIntoChunks(){
+        List<Long> ids = new java.util.ArrayList<>();
+        for (long id = 1; id <= OrderService.BULK_CHUNK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        when(orderRepository.findSnapshotsForUpdate(anyList())).thenReturn(List.of());
+
+        BulkStatusUpdateResponse response = orderService.updateStatuses(BulkStatusUpdateRequest.builder().ids(ids).status(OrderStatus.Rejected).build());
+
+        assertEquals(OrderService.BULK_CHUNK_SIZE + 1, response.getNotFound());
+        verify(orderRepository, times(2)).findSnapshotsForUpdate(anyList());
+        verify(transactionOperations, times(2)).execute(any());
+        verify(orderRepository, never()).updateStatusIfNotCancelled(anyList(), any());
+    }
+    @Test
+    void shouldMoveOrdersMatchingFilterChunkByChunk(){
+        List<OrderSnapshot> firstChunk = new java.util.ArrayList<>();
+        for (long id = 1; id <= OrderService.BULK_CHUNK_SIZE; id++) {
+            firstChunk.add(new OrderSnapshot(id, 5L, BigDecimal.ONE, OrderStatus.Created, 0L));
+        }
+        long lastId = OrderService.BULK_CHUNK_SIZE;
+        when(orderRepository.findSnapshotsForUpdate(OrderStatus.Created, 5L, 0L, Limit.of(OrderService.BULK_CHUNK_SIZE))).thenReturn(firstChunk);
+        when(orderRepository.findSnapshotsForUpdate(OrderStatus.Created, 5L, lastId, Limit.of(OrderService.BULK_CHUNK_SIZE)))
+                .thenReturn(List.of(new OrderSnapshot(lastId + 1, 5L, BigDecimal.ONE, OrderStatus.Created, 0L)));
+        BulkStatusUpdateRequest request = BulkStatusUpdateRequest.builder().fromStatus(OrderStatus.Created).userId(5L).status(OrderStatus.Approved).build();
+
+        BulkStatusUpdateResponse response = orderService.updateStatuses(request);
+
+        assertEquals(OrderService.BULK_CHUNK_SIZE + 1, response.getUpdated());
+        verify(orderRepository, times(2)).updateStatusIfNotCancelled(anyList(), eq(OrderStatus.Approved));
+    }
+    @Test
+    void shouldRejectInvalidBulkStatusRequests(){
+        assertThrows(InvalidOrderException.class, () -> orderService.updateStatuses(BulkStatusUpdateRequest.builder().status(OrderStatus.Approved).build()));
+        assertThrows(InvalidOrderException.class, () -> orderService.updateStatuses(BulkStatusUpdateRequest.builder()
+                .ids(List.of(1L)).fromStatus(OrderStatus.Created).status(OrderStatus.Approved).build()));
+        InvalidOrderException cancelled = assertThrows(InvalidOrderException.class, () -> orderService.updateStatuses(BulkStatusUpdateRequest.builder()
+                .fromStatus(OrderStatus.Cancelled).status(OrderStatus.Approved).build()));
+        assertEquals("Cancelled Order cannot be updated", cancelled.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+    @Test
+    void shouldCreateValidatedOrdersInOneTransaction(){
+        CreateOrderRequest first = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.ONE).build();
+        CreateOrderRequest second = CreateOrderRequest.builder().userId(2L).amount(BigDecimal.TEN).build();
+        OrderEntity firstEntity = OrderEntity.builder().userId(1L).amount(BigDecimal.ONE).build();
+        OrderEntity secondEntity = OrderEntity.builder().userId(2L).amount(BigDecimal.TEN).build();
+        OrderResponse firstResponse = OrderResponse.builder().id(1L).userId(1L).amount(BigDecimal.ONE).status(OrderStatus.Created).build();
+        OrderResponse secondResponse = OrderResponse.builder().id(2L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(first)).thenReturn(firstEntity);
+        when(orderMapper.toEntity(second)).thenReturn(secondEntity);
+        when(orderRepository.saveAll(List.of(firstEntity, secondEntity))).thenReturn(List.of(firstEntity, secondEntity));
+        when(orderMapper.toResponse(firstEntity)).thenReturn(firstResponse);
+        when(orderMapper.toResponse(secondEntity)).thenReturn(secondResponse);
+
+        List<OrderResponse> created = orderService.createValidatedOrders(List.of(first, second));
+
+        assertEquals(List.of(firstResponse, secondResponse), created);
+        assertEquals(OrderStatus.Created, firstEntity.getStatus());
+        verify(transactionOperations, times(1)).execute(any());
+        verify(orderEventOutbox).recordAll(OrderEventType.OrderCreated, List.of(firstResponse, secondResponse));
+        verify(orderAggregates).add(2L, BigDecimal.TEN, OrderStatus.Created);
+        assertSame(secondResponse, orderService.findById(2L));
+    }
+
+    @Test
+    void shouldAnswerUnknownIdWithoutDatabaseWhenFilterIsBuilt(){
+        orderIdFilter.rebuild(ids -> LongStream.of(1, 1_000).forEach(ids));
+
+        OrderNotFoundException orderNotFoundException = assertThrows(OrderNotFoundException.class, () -> orderService.findById(2L));
+
+        assertEquals("Order with id=2 not found", orderNotFoundException.getMessage());
+        assertEquals(0, orderNotFoundException.getStackTrace().length);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void shouldAddCreatedOrderToIdFilter(){
+        orderIdFilter.rebuild(ids -> { });
+        CreateOrderRequest createOrderRequest = CreateOrderRequest.builder().userId(1L).amount(BigDecimal.TEN).build();
+        OrderEntity orderEntity = OrderEntity.builder().userId(1L).amount(BigDecimal.TEN).build();
+        OrderEntity savedEntity = OrderEntity.builder().id(70_000L).userId(1L).amount(BigDecimal.TEN).status(OrderStatus.Created).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(70_000L).userId(1L).amount(BigDecimal.TEN).status(OrderStatus.Created).build();
+        when(orderMapper.toEntity(createOrderRequest)).thenReturn(orderEntity);
+        when(orderRepository.save(orderEntity)).thenReturn(savedEntity);
+        when(orderMapper.toResponse(savedEntity)).thenReturn(orderResponse);
+
+        orderService.createOrder(createOrderRequest);
+
+        assertTrue(orderIdFilter.mightContain(70_000L));
+    }
+
+    @Test
+    void shouldRemoveDeletedOrderFromIdFilter(){
+        orderIdFilter.rebuild(ids -> LongStream.of(5, 1_000).forEach(ids));
+        when(orderRepository.findSnapshot(5L)).thenReturn(snapshot(5L, 1L, BigDecimal.ONE, OrderStatus.Created));
+        when(orderRepository.deleteOrderById(5L, 0L)).thenReturn(1);
+
+        orderService.deleteById(5L);
+
+        assertFalse(orderIdFilter.mightContain(5L));
+        assertThrows(OrderNotFoundException.class, () -> orderService.findById(5L));
+        verify(orderRepository, never()).findById(5L);
+    }
+
+    @Test
+    void shouldBumpVersionOnUpdate(){
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.of(new OrderSnapshot(1L, 1L, BigDecimal.ONE, OrderStatus.Created, 4L)));
+        when(orderRepository.updateIfNotCancelled(1L, 4L, null, BigDecimal.TEN, OrderStatus.Approved)).thenReturn(1);
+
+        OrderResponse updatedOrder = orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).status(OrderStatus.Approved).build(), 1L, 4L);
+
+        assertEquals(5L, updatedOrder.getVersion());
+        verify(orderRepository).updateIfNotCancelled(1L, 4L, null, BigDecimal.TEN, OrderStatus.Approved);
+    }
+
+    @Test
+    void shouldRejectUpdateWhenVersionDoesNotMatch(){
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.of(new OrderSnapshot(1L, 1L, BigDecimal.ONE, OrderStatus.Created, 4L)));
+
+        OrderVersionMismatchException exception = assertThrows(OrderVersionMismatchException.class,
+                () -> orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).status(OrderStatus.Approved).build(), 1L, 3L));
+
+        assertEquals("Order with id=1 was modified, current version=4", exception.getMessage());
+        verify(orderRepository, never()).updateIfNotCancelled(any(), any(), any(), any(), any());
+        verifyNoInteractions(orderEventOutbox);
+    }
+
+    @Test
+    void shouldReadRecentlyUpdatedOrderFromPrimary(){
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.of(new OrderSnapshot(1L, 1L, BigDecimal.ONE, OrderStatus.Created, 0L)));
+        when(orderRepository.updateIfNotCancelled(1L, 0L, null, BigDecimal.TEN, null)).thenReturn(1);
+        boolean[] pinned = new boolean[2];
+        OrderEntity first = OrderEntity.builder().id(1L).build();
+        OrderEntity second = OrderEntity.builder().id(2L).build();
+        when(orderRepository.findById(1L)).thenAnswer(invocation -> {
+            pinned[0] = PrimaryReads.isPinned();
+            return Optional.of(first);
+        });
+        when(orderRepository.findById(2L)).thenAnswer(invocation -> {
+            pinned[1] = PrimaryReads.isPinned();
+            return Optional.of(second);
+        });
+        when(orderMapper.toResponse(any(OrderEntity.class))).thenReturn(OrderResponse.builder().build());
+
+        orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).build(), 1L);
+        orderCache.invalidate(1L);
+        orderService.findById(1L);
+        orderService.findById(2L);
+
+        assertTrue(pinned[0]);
+        assertFalse(pinned[1]);
+        assertFalse(PrimaryReads.isPinned());
+    }
+
+    @Test
+    void shouldFindArchivedOrderWhenMissingFromOrdersTable(){
+        ArchivedOrderEntity archived = ArchivedOrderEntity.builder().id(1L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Cancelled).version(3L).build();
+        OrderResponse orderResponse = OrderResponse.builder().id(1L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Cancelled).version(3L).build();
+        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findById(1L)).thenReturn(Optional.of(archived));
+        when(orderMapper.toResponse(archived)).thenReturn(orderResponse);
+
+        assertSame(orderResponse, orderService.findById(1L));
+        assertSame(orderResponse, orderService.findById(1L));
+        verify(archivedOrderRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void shouldRejectUpdateOfArchivedOrder(){
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.existsById(1L)).thenReturn(true);
+
+        InvalidOrderException exception = assertThrows(InvalidOrderException.class,
+                () -> orderService.updateOrder(UpdateOrderRequestDto.builder().amount(BigDecimal.TEN).status(OrderStatus.Approved).build(), 1L));
+
+        assertEquals("Archived Order cannot be updated", exception.getMessage());
+        verify(orderRepository, never()).updateIfNotCancelled(any(), any(), any(), any(), any());
+        verifyNoInteractions(orderEventOutbox);
+    }
+
+    @Test
+    void shouldDeleteArchivedOrder(){
+        ArchivedOrderEntity archived = ArchivedOrderEntity.builder().id(1L).userId(2L).amount(BigDecimal.TEN).status(OrderStatus.Rejected).version(3L).build();
+        when(orderRepository.findSnapshot(1L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findById(1L)).thenReturn(Optional.of(archived));
+        when(archivedOrderRepository.deleteArchivedById(1L)).thenReturn(1);
+
+        assertEquals("Order deleted successfully with orderId=1", orderService.deleteById(1L));
+
+        verify(orderEventOutbox).record(OrderEventType.OrderDeleted, 1L, null);
+        verify(orderAggregates).remove(2L, BigDecimal.TEN, OrderStatus.Rejected);
+    }
 }
@@ -0,0 +1,150 @@
+package com.MFP.OrderService.shard;
+
+import com.MFP.OrderService.config.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderShardsTest {
+    private final OrderShards orderShards = new OrderShards(3, 8);
+
+    @AfterEach
+    void shutDown() {
+        orderShards.destroy();
+    }
+
+    @Test
+    void shouldUseOneShardWhenShardingIsDisabled() {
+        OrderShards single = new OrderShards(1, 1);
+
+        assertEquals(1, single.count());
+        assertEquals(0, single.forUser(42L));
+        assertEquals(0, single.forOrder(12_345L));
+        assertEquals(0, single.forOrder(OrderShards.encode(12_345L, 2, 0)));
+        assertEquals(List.of(0), single.onEach(ShardContext::current));
+    }
+
+    @Test
+    void shouldTakeCountFromRoutingDataSource() {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        properties.setShards(List.of(new ShardingProperties.Shard(), new ShardingProperties.Shard(), new ShardingProperties.Shard()));
+        StaticListableBeanFactory withoutRouting = new StaticListableBeanFactory();
+        StaticListableBeanFactory withRouting = new StaticListableBeanFactory();
+        withRouting.addBean("dataSource", new ShardRoutingDataSource(List.of(new DriverManagerDataSource(), new DriverManagerDataSource())));
+
+        OrderShards single = new OrderShards(withoutRouting.getBeanProvider(ShardRoutingDataSource.class), properties);
+        OrderShards routed = new OrderShards(withRouting.getBeanProvider(ShardRoutingDataSource.class), properties);
+
+        assertEquals(1, single.count());
+        assertEquals(2, routed.count());
+        routed.destroy();
+    }
+
+    @Test
+    void shouldSpreadUsersOverAllShards() {
+        int[] users = new int[3];
+        for (long userId = 1; userId <= 3000; userId++) {
+            int shard = orderShards.forUser(userId);
+            assertEquals(shard, orderShards.forUser(userId));
+            users[shard]++;
+        }
+        for (int count : users) {
+            assertTrue(count > 900 && count < 1100, "users per shard " + count);
+        }
+    }
+
+    @Test
+    void shouldEncodeShardIntoId() {
+        for (int shard = 0; shard < 3; shard++) {
+            for (long local : new long[]{1, 49, 50, 1_000_000}) {
+                long id = OrderShards.encode(local, shard, 0);
+                assertEquals(shard, orderShards.forOrder(id));
+            }
+        }
+        assertNotEquals(OrderShards.encode(1, 1, 0), OrderShards.encode(1, 2, 0));
+        assertEquals(0, orderShards.forOrder(OrderShards.encode(1, 5, 0)));
+        assertThrows(ArithmeticException.class, () -> OrderShards.encode(Long.MAX_VALUE / 2, 0, 0));
+    }
+
+    @Test
+    void shouldKeepIdsAndUsersOnTheirShardWhenAShardIsAppended() {
+        OrderShards appended = new OrderShards(4, Arrays.asList("0-341", "342-682", "683-1023", null), 0, 1);
+        try {
+            for (long userId = 1; userId <= 3000; userId++) {
+                assertEquals(orderShards.forUser(userId), appended.forUser(userId));
+            }
+            for (int shard = 0; shard < 3; shard++) {
+                long id = OrderShards.encode(1_000, shard, 0);
+                assertEquals(orderShards.forOrder(id), appended.forOrder(id));
+            }
+            assertEquals(3, appended.forOrder(OrderShards.encode(1_000, 3, 0)));
+        } finally {
+            appended.destroy();
+        }
+    }
+
+    @Test
+    void shouldKeepPlainIdsFromBeforeShardingOnFirstShard() {
+        OrderShards migrated = new OrderShards(3, List.of(), 10_000, 1);
+        try {
+            assertEquals(0, migrated.forOrder(9_999L));
+            assertEquals(0, migrated.forOrder(10_000L));
+            long id = OrderShards.encode(1, 2, 10_000);
+            assertTrue(id > 10_000);
+            assertEquals(2, migrated.forOrder(id));
+        } finally {
+            migrated.destroy();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidSlotTables() {
+        assertThrows(IllegalStateException.class, () -> new OrderShards(2, List.of("0-511", "600-1023"), 0, 1));
+        assertThrows(IllegalStateException.class, () -> new OrderShards(2, List.of("0-600", "500-1023"), 0, 1));
+        assertThrows(IllegalStateException.class, () -> new OrderShards(2, List.of("0-511", "512-1024"), 0, 1));
+        assertThrows(IllegalStateException.class, () -> new OrderShards(OrderShards.MAX_SHARDS + 1, 1));
+    }
+
+    @Test
+    void shouldRunOnEveryShardAndKeepShardOrder() {
+        List<Integer> shards = orderShards.onEach(ShardContext::current);
+
+        assertEquals(List.of(0, 1, 2), shards);
+        assertEquals(0, ShardContext.current());
+        assertEquals(2, orderShards.on(2, ShardContext::current));
+        assertEquals(0, ShardContext.current());
+    }
+
+    @Test
+    void shouldRethrowFailureOfOneShard() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> orderShards.onEach(() -> {
+            if (ShardContext.current() == 1) {
+                throw new IllegalStateException("shard 1 down");
+            }
+            return 0;
+        }));
+
+        assertEquals("shard 1 down", exception.getMessage());
+    }
+
+    @Test
+    void shouldRefuseToSwitchShardInsideTransaction() {
+        orderShards.run(1, () -> {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                assertEquals(1, orderShards.on(1, ShardContext::current));
+                assertThrows(IllegalStateException.class, () -> orderShards.on(2, ShardContext::current));
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package com.MFP.OrderService.shard;
+
+import com.MFP.OrderService.dto.BulkStatusUpdateRequest;
+import com.MFP.OrderService.dto.CreateOrderRequest;
+import com.MFP.OrderService.dto.OrderPageResponse;
+import com.MFP.OrderService.dto.OrderResponse;
+import com.MFP.OrderService.dto.OrderSliceResponse;
+import com.MFP.OrderService.dto.UpdateOrderRequestDto;
+import com.MFP.OrderService.enums.OrderStatus;
+import com.MFP.OrderService.exception.InvalidOrderException;
+import com.MFP.OrderService.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Three in-memory H2 databases as shards; Hibernate creates the schema on each of them.
+@ActiveProfiles("test")
+@SpringBootTest(properties = {
+        "order.sharding.enabled=true",
+        "order.sharding.shards[0].url=jdbc:h2:mem:shard_a;DB_CLOSE_DELAY=-1",
+        "order.sharding.shards[1].url=jdbc:h2:mem:shard_b;DB_CLOSE_DELAY=-1",
+        "order.sharding.shards[2].url=jdbc:h2:mem:shard_c;DB_CLOSE_DELAY=-1",
+        "order.outbox.relay-enabled=false"
+})
+class ShardingTest {
+    private static final String[] URLS = {"jdbc:h2:mem:shard_a", "jdbc:h2:mem:shard_b", "jdbc:h2:mem:shard_c"};
+    private static final long FIRST_USER = 50_000;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderShards orderShards;
+
+    @Test
+    void shouldPlaceOrdersOnTheShardOfTheirUser() throws SQLException {
+        List<OrderResponse> created = createOrders(FIRST_USER, 12, OrderStatus.Created);
+
+        for (OrderResponse order : created) {
+            int shard = orderShards.forUser(order.getUserId());
+            assertEquals(shard, orderShards.forOrder(order.getId()));
+            assertEquals(1, count(shard, "select count(*) from orders where id = " + order.getId()));
+            assertEquals(1, count(shard, "select count(*) from order_outbox where order_id = " + order.getId()));
+            assertEquals(order.getUserId(), orderService.findById(order.getId()).getUserId());
+        }
+        assertEquals(created.size(), new HashSet<>(created.stream().map(OrderResponse::getId).toList()).size());
+        assertEquals(List.of(created.get(0).getId()),
+                orderService.findByUser(FIRST_USER, null, null, 0, 10).getOrders().stream().map(OrderResponse::getId).toList());
+    }
+
+    @Test
+    void shouldMergePagesOfAllShardsInIdOrder() {
+        createOrders(FIRST_USER + 100, 30, OrderStatus.Created);
+
+        List<Long> ids = new ArrayList<>();
+        Long after = null;
+        do {
+            OrderPageResponse page = orderService.findPage(after, 7);
+            page.getOrders().forEach(order -> ids.add(order.getId()));
+            after = page.getNext();
+        } while (after != null);
+
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        assertEquals(ids.size(), orderService.findAll().size());
+        List<Long> streamed = new ArrayList<>();
+        orderService.streamAll(order -> streamed.add(order.getId()));
+        assertEquals(new HashSet<>(ids), new HashSet<>(streamed));
+    }
+
+    @Test
+    void shouldSliceStatusAcrossShards() {
+        List<OrderResponse> rejected = createOrders(FIRST_USER + 200, 9, OrderStatus.Rejected);
+        List<Long> expected = rejected.stream().map(OrderResponse::getId).sorted().toList();
+
+        OrderSliceResponse first = orderService.findByStatus(OrderStatus.Rejected, null, null, 0, 4);
+        OrderSliceResponse second = orderService.findByStatus(OrderStatus.Rejected, null, null, 1, 4);
+        OrderSliceResponse third = orderService.findByStatus(OrderStatus.Rejected, null, null, 2, 4);
+
+        List<Long> sliced = new ArrayList<>();
+        for (OrderSliceResponse slice : List.of(first, second, third)) {
+            slice.getOrders().forEach(order -> sliced.add(order.getId()));
+        }
+        assertEquals(expected, sliced);
+        assertTrue(first.isHasNext());
+        assertTrue(second.isHasNext());
+        assertFalse(third.isHasNext());
+        List<OrderResponse> byAmount = orderService.findByStatus(OrderStatus.Rejected, BigDecimal.ONE, null, 0, 9).getOrders();
+        assertEquals(byAmount.stream().sorted(Comparator.comparing(OrderResponse::getAmount).thenComparing(OrderResponse::getId)).toList(), byAmount);
+        assertEquals(List.of(), orderService.findByStatus(OrderStatus.Rejected, null, null, 10, 1000).getOrders());
+        assertThrows(InvalidOrderException.class, () -> orderService.findByStatus(OrderStatus.Rejected, null, null, Integer.MAX_VALUE / 2, 4));
+    }
+
+    @Test
+    void shouldAggregateAndTransitionOnEveryShard() {
+        List<OrderResponse> approved = createOrders(FIRST_USER + 300, 6, OrderStatus.Approved);
+        long before = orderService.aggregatesByStatus().getCounts().getOrDefault(OrderStatus.Approved, 0L);
+        assertTrue(before >= 6);
+
+        int updated = orderService.updateStatuses(BulkStatusUpdateRequest.builder()
+                .fromStatus(OrderStatus.Approved).status(OrderStatus.Cancelled).build()).getUpdated();
+
+        assertEquals(before, updated);
+        for (OrderResponse order : approved) {
+            assertEquals(OrderStatus.Cancelled, orderService.findById(order.getId()).getStatus());
+        }
+        assertEquals(0L, orderService.aggregatesByStatus().getCounts().getOrDefault(OrderStatus.Approved, 0L));
+    }
+
+    @Test
+    void shouldNotMoveOrderToUserOnAnotherShard() {
+        OrderResponse order = createOrders(FIRST_USER + 400, 1, OrderStatus.Created).get(0);
+        long otherUser = FIRST_USER + 401;
+        while (orderShards.forUser(otherUser) == orderShards.forUser(order.getUserId())) {
+            otherUser++;
+        }
+        long movedUser = otherUser;
+
+        assertThrows(InvalidOrderException.class, () -> orderService.updateOrder(
+                UpdateOrderRequestDto.builder().userId(movedUser).amount(BigDecimal.TEN).build(), order.getId()));
+        assertEquals("Order deleted successfully with orderId=" + order.getId(), orderService.deleteById(order.getId()));
+    }
+
+    private List<OrderResponse> createOrders(long firstUser, int count, OrderStatus status) {
+        List<OrderResponse> created = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OrderResponse order = orderService.createOrder(CreateOrderRequest.builder()
+                    .userId(firstUser + i).amount(BigDecimal.valueOf(count - i)).build());
+            if (status != OrderStatus.Created) {
+                order = orderService.updateOrder(UpdateOrderRequestDto.builder().amount(order.getAmount()).status(status).build(), order.getId());
+            }
+            created.add(order);
+        }
+        return created;
+    }
+
+    private static long count(int shard, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URLS[shard], "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}